@@ -0,0 +1,97 @@
+package game;
+
+import java.lang.management.ManagementFactory;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * This class checks that the updates measured by MotionBenchmark don't allocate once warmed up.
+ * It runs each update on its own for a while so the JIT has compiled it, then reads this
+ * thread's allocated byte count around a few batches of steady-state updates. The first
+ * batch can pick up one-time allocations of the check itself, so the update fails only if
+ * even its best batch allocated; an update that allocates in steady state does so every time.
+ * It exits with status 1 if any update allocated, so it can fail a build or CI job:
+ * java -cp benchmarks/target/benchmarks.jar game.AllocationCheck
+ */
+public class AllocationCheck {
+    
+    private static final int WARMUP_UPDATES = 200_000;
+    private static final int MEASURED_UPDATES = 100_000;
+    private static final int ROUNDS = 3;
+    
+    /**
+     * Inner interface for one kind of update being checked.
+     */
+    private interface Update {
+        
+        /**
+         * Runs the update once.
+         */
+        void run();
+    }
+    
+    /**
+     * Runs every check and prints how many bytes each update allocated.
+     * 
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        ThreadMXBean threads = (ThreadMXBean)ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            System.err.println("This JVM can't count allocated bytes per thread");
+            System.exit(2);
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        
+        MotionBenchmark benchmark = new MotionBenchmark();
+        benchmark.setup();
+        int failures = 0;
+        failures += check(threads, "bulletUpdate", benchmark::bulletUpdate);
+        failures += check(threads, "particleUpdate", benchmark::particleUpdate);
+        // The field is slower per update, so fewer of them keep the run short
+        failures += check(threads, "asteroidFieldUpdate", benchmark::asteroidFieldUpdate, 20_000, 2_000);
+        if (failures > 0) {
+            System.err.println(failures + " update(s) allocated");
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Checks one update with the default number of warm-up and measured runs.
+     * 
+     * @param threads the bean that counts allocated bytes
+     * @param name the name printed for the update
+     * @param update the update to check
+     * @return 1 if the update allocated, otherwise 0
+     */
+    private static int check(ThreadMXBean threads, String name, Update update) {
+        return check(threads, name, update, WARMUP_UPDATES, MEASURED_UPDATES);
+    }
+    
+    /**
+     * Warms up one update, then counts the bytes allocated by batches of further runs.
+     * 
+     * @param threads the bean that counts allocated bytes
+     * @param name the name printed for the update
+     * @param update the update to check
+     * @param warmup how many runs to do before measuring
+     * @param measured how many runs to measure in each batch
+     * @return 1 if the update allocated, otherwise 0
+     */
+    private static int check(ThreadMXBean threads, String name, Update update, int warmup, int measured) {
+        for (int i = 0; i < warmup; i++) {
+            update.run();
+        }
+        long bytes = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < measured; i++) {
+                update.run();
+            }
+            bytes = Math.min(bytes, threads.getCurrentThreadAllocatedBytes() - before);
+        }
+        System.out.println(name + ": " + bytes + " bytes in " + measured + " updates");
+        return bytes > 0 ? 1 : 0;
+    }
+}
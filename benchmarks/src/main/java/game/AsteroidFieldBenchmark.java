@@ -0,0 +1,86 @@
+package game;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the asteroid field at different field sizes: moving every asteroid,
+ * checking bullets against asteroids, and one whole simulation tick.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class AsteroidFieldBenchmark {
+    
+    @Param({"10", "1000", "10000", "100000"})
+    public int asteroidCount;
+    
+    private World world;
+    private AsteroidField field;
+    private Ship ship;
+    
+    /**
+     * Builds a fresh world with the requested number of asteroids spread over the
+     * field, and a ship that has been firing for a second so bullets are in flight.
+     */
+    @Setup(Level.Iteration)
+    public void setup() {
+        world = new World(800, 600, 1);
+        field = world.getAsteroidField();
+        field.spawnAsteroids(asteroidCount);
+        ship = world.getShip();
+        ship.setInput(Ship.LEFT | Ship.SHOOT);
+        for (int i = 0; i < 60; i++) {
+            ship.update();
+        }
+    }
+    
+    @Benchmark
+    public void update() {
+        field.update();
+    }
+    
+    @Benchmark
+    public void checkBulletCollisions() {
+        field.checkBulletCollisions(ship);
+    }
+    
+    @Benchmark
+    public boolean checkShipCollision() {
+        return field.checkShipCollision(ship);
+    }
+    
+    @Benchmark
+    public boolean checkCollisions() {
+        return field.checkCollisions(ship);
+    }
+    
+    /**
+     * One simulation tick as World.update runs it, except that a ship collision
+     * doesn't cost a life, so dense fields don't end the game mid-measurement.
+     * 
+     * @param blackhole sink for the collision result
+     */
+    @Benchmark
+    public void tick(Blackhole blackhole) {
+        ship.update();
+        field.update();
+        blackhole.consume(field.checkCollisions(ship));
+    }
+}
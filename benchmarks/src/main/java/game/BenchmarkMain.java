@@ -0,0 +1,29 @@
+package game;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * This class is the entry point of the benchmark jar.
+ * It accepts the usual JMH command line options and always adds the GC profiler,
+ * so allocation rates (gc.alloc.rate.norm) are reported next to the timings.
+ */
+public class BenchmarkMain {
+    
+    /**
+     * Runs the benchmarks selected on the command line, or all of them.
+     * 
+     * @param args JMH command line options
+     * @throws Exception if the options are invalid or a benchmark fails
+     */
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
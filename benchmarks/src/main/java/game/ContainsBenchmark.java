@@ -0,0 +1,83 @@
+package game;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares testing a batch of points against one asteroid with AsteroidShape.contains
+ * one point at a time, the branch-free scalar kernel and the Vector API kernel.
+ * 4 points is the ship; 1024 is a field of bullets or particles.
+ * The points are spread over the asteroid's bounding box, so about half are inside.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "--add-modules", "jdk.incubator.vector"})
+public class ContainsBenchmark {
+    
+    @Param({"4", "1024"})
+    public int pointCount;
+    
+    @Param({"contains", "scalar", "vector"})
+    public String kernel;
+    
+    private AsteroidShape shape;
+    private ContainsKernel batch;
+    private double[] hitX;
+    private double[] hitY;
+    private double[] pointX;
+    private double[] pointY;
+    private boolean[] inside;
+    
+    /**
+     * Builds one large asteroid at (400, 300) and the points to test against it.
+     */
+    @Setup
+    public void setup() {
+        shape = AsteroidField.newShapeCache().get(0, 4.5, 30);
+        batch = kernel.equals("vector") ? new VectorContainsKernel() : new ScalarContainsKernel();
+        Point[] points = new Polygon(shape.getOutline(), new Point(0, 0), 30).getPoints();
+        hitX = new double[points.length];
+        hitY = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            hitX[i] = points[i].x;
+            hitY[i] = points[i].y;
+        }
+        Random random = new Random(1);
+        pointX = new double[pointCount];
+        pointY = new double[pointCount];
+        inside = new boolean[pointCount];
+        for (int p = 0; p < pointCount; p++) {
+            pointX[p] = 400 + shape.getMinX() + random.nextDouble() * (shape.getMaxX() - shape.getMinX());
+            pointY[p] = 300 + shape.getMinY() + random.nextDouble() * (shape.getMaxY() - shape.getMinY());
+        }
+    }
+    
+    @Benchmark
+    public int containsAll() {
+        if (kernel.equals("contains")) {
+            int count = 0;
+            for (int p = 0; p < pointCount; p++) {
+                inside[p] = shape.contains(400, 300, pointX[p], pointY[p]);
+                count += inside[p] ? 1 : 0;
+            }
+            return count;
+        }
+        return batch.contains(hitX, hitY, shape.getMinX(), shape.getMinY(), shape.getMaxX(), shape.getMaxY(),
+                400, 300, pointX, pointY, 0, pointCount, inside);
+    }
+}
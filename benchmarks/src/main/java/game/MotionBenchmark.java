@@ -0,0 +1,66 @@
+package game;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for moving single bullets, explosion particles and an asteroid field.
+ * Once warmed up these should not allocate, so gc.alloc.rate.norm must stay at 0 B/op.
+ * Spawning is turned off, since a spawn allocates its edge point.
+ * AllocationCheck runs the same updates outside JMH and fails if any of them allocate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class MotionBenchmark {
+    
+    private Bullet bullet;
+    private ParticleSystem particles;
+    private AsteroidField field;
+    
+    /**
+     * Creates one bullet, one explosion's worth of particles and a field of 1000 asteroids.
+     */
+    @Setup
+    public void setup() {
+        World world = new World(800, 600, 1);
+        bullet = new Bullet(new Point(400, 300), 37, 8);
+        particles = new ParticleSystem(16, 30);
+        particles.explode(400, 300, 0);
+        field = world.getAsteroidField();
+        field.spawnAsteroids(1000);
+        field.setSpawningMultiplier(0);
+    }
+    
+    @Benchmark
+    public Point bulletUpdate() {
+        bullet.update();
+        return bullet.getPosition();
+    }
+    
+    @Benchmark
+    public ParticleSystem particleUpdate() {
+        // Frame 0 forever, so the particles never expire
+        particles.update(0);
+        return particles;
+    }
+    
+    @Benchmark
+    public AsteroidField asteroidFieldUpdate() {
+        field.update();
+        return field;
+    }
+}
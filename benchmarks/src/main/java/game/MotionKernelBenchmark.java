@@ -0,0 +1,71 @@
+package game;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the scalar and Vector API motion kernels moving a whole field of asteroids.
+ * The asteroids keep moving between invocations, so they wrap just as often as in the game.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "--add-modules", "jdk.incubator.vector"})
+public class MotionKernelBenchmark {
+    
+    @Param({"1000", "100000"})
+    public int asteroidCount;
+    
+    @Param({"scalar", "vector"})
+    public String kernel;
+    
+    private MotionKernel motion;
+    private double[] x;
+    private double[] y;
+    private double[] previousX;
+    private double[] previousY;
+    private double[] dx;
+    private double[] dy;
+    
+    /**
+     * Spreads the asteroids over the field with random headings.
+     */
+    @Setup
+    public void setup() {
+        motion = kernel.equals("vector") ? new VectorMotionKernel() : new ScalarMotionKernel();
+        Random random = new Random(1);
+        x = new double[asteroidCount];
+        y = new double[asteroidCount];
+        previousX = new double[asteroidCount];
+        previousY = new double[asteroidCount];
+        dx = new double[asteroidCount];
+        dy = new double[asteroidCount];
+        for (int a = 0; a < asteroidCount; a++) {
+            double angle = random.nextDouble() * 360;
+            x[a] = random.nextDouble() * 800;
+            y[a] = random.nextDouble() * 600;
+            dx[a] = Utilities.directionX(angle, 2.1);
+            dy[a] = Utilities.directionY(angle, 2.1);
+        }
+    }
+    
+    @Benchmark
+    public double[] move() {
+        motion.move(x, y, previousX, previousY, dx, dy, 0, asteroidCount, 800, 600);
+        return x;
+    }
+}
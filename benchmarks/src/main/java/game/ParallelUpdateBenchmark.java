@@ -0,0 +1,53 @@
+package game;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares AsteroidField.update moving the asteroids on one thread and on the ForkJoinPool.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ParallelUpdateBenchmark {
+    
+    @Param({"10000", "100000"})
+    public int asteroidCount;
+    
+    @Param({"false", "true"})
+    public boolean parallel;
+    
+    private AsteroidField field;
+    
+    /**
+     * Builds a field with the requested number of asteroids and update mode.
+     */
+    @Setup(Level.Iteration)
+    public void setup() {
+        World world = new World(800, 600, 1);
+        field = world.getAsteroidField();
+        field.setParallelThreshold(parallel ? 0 : Integer.MAX_VALUE);
+        field.spawnAsteroids(asteroidCount);
+    }
+    
+    @Benchmark
+    public AsteroidField update() {
+        field.update();
+        return field;
+    }
+}
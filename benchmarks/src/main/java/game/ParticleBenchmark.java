@@ -0,0 +1,55 @@
+package game;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures one update of a ParticleSystem full of live explosion particles.
+ * Like the rest of the motion benchmarks this must not allocate (gc.alloc.rate.norm 0 B/op).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ParticleBenchmark {
+    
+    @Param({"1000", "100000", "1000000"})
+    public int particleCount;
+    
+    private ParticleSystem particles;
+    
+    /**
+     * Fills the system with explosions spread over the screen.
+     */
+    @Setup
+    public void setup() {
+        particles = new ParticleSystem(16, 30);
+        for (int i = 0; particles.getParticleCount() < particleCount; i++) {
+            particles.explode(i * 7 % 800, i * 13 % 600, 0);
+        }
+    }
+    
+    /**
+     * Updates every particle. The frame stays at 0, so none of them ever expire.
+     * 
+     * @return the particle system
+     */
+    @Benchmark
+    public ParticleSystem update() {
+        particles.update(0);
+        return particles;
+    }
+}
@@ -0,0 +1,74 @@
+package game;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for Polygon.getPoints and Polygon.contains, both on a polygon that stays
+ * still and on one that turns every call so its cached points have to be recomputed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PolygonBenchmark {
+    
+    private Polygon polygon;
+    private Point inside;
+    private Point outside;
+    
+    /**
+     * Builds an asteroid-sized polygon and one point inside and one outside of it.
+     */
+    @Setup
+    public void setup() {
+        Point[] shape = {
+            new Point(27, -24), new Point(18, -6), new Point(30, 3),
+            new Point(9, 12), new Point(21, 27), new Point(0, 18),
+            new Point(-12, 6), new Point(-27, 15), new Point(-18, -9),
+            new Point(-6, -30)
+        };
+        polygon = new Polygon(shape, new Point(400, 300), 30);
+        inside = new Point(400, 300);
+        outside = new Point(300, 200);
+    }
+    
+    @Benchmark
+    public Point[] getPoints() {
+        return polygon.getPoints();
+    }
+    
+    @Benchmark
+    public Point[] getPointsRotating() {
+        polygon.rotate(1);
+        return polygon.getPoints();
+    }
+    
+    @Benchmark
+    public boolean containsInside() {
+        return polygon.contains(inside);
+    }
+    
+    @Benchmark
+    public boolean containsOutside() {
+        return polygon.contains(outside);
+    }
+    
+    @Benchmark
+    public boolean containsRotating() {
+        polygon.rotate(1);
+        return polygon.contains(inside);
+    }
+}
@@ -0,0 +1,68 @@
+package game;
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares drawing a frame a line at a time with drawing it through one RenderBatch,
+ * into an off-screen image so no window is needed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RenderBenchmark {
+    
+    @Param({"1000", "10000"})
+    public int asteroidCount;
+    
+    @Param({"false", "true"})
+    public boolean batched;
+    
+    private World world;
+    private BufferedImage image;
+    private Graphics brush;
+    
+    /**
+     * Builds a world with the requested number of asteroids and an image to draw into.
+     */
+    @Setup(Level.Iteration)
+    public void setup() {
+        world = new World(800, 600, 1);
+        world.setBatchRendering(batched);
+        world.getAsteroidField().spawnAsteroids(asteroidCount);
+        image = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        brush = image.getGraphics();
+    }
+    
+    /**
+     * Releases the image's Graphics object.
+     */
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        brush.dispose();
+    }
+    
+    @Benchmark
+    public BufferedImage draw() {
+        world.draw(brush, 0.5);
+        return image;
+    }
+}
@@ -0,0 +1,62 @@
+package game;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures one tick of a ShardedWorld for different shard counts, with a spinning,
+ * shooting ship in a field about three times the size of the screen each way.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ShardedWorldBenchmark {
+    
+    @Param({"100000"})
+    public int asteroidCount;
+    
+    @Param({"1", "2", "4", "8"})
+    public int shards;
+    
+    private ShardedWorld world;
+    
+    /**
+     * Builds a sharded world with the requested number of asteroids and shards.
+     */
+    @Setup(Level.Iteration)
+    public void setup() {
+        world = new ShardedWorld(2500, 1900, shards, 1);
+        world.spawnAsteroids(asteroidCount);
+        world.getShip().setInput(Ship.LEFT | Ship.SHOOT);
+    }
+    
+    /**
+     * Stops the world's worker threads.
+     */
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        world.close();
+    }
+    
+    @Benchmark
+    public ShardedWorld update() {
+        world.update();
+        return world;
+    }
+}
@@ -0,0 +1,57 @@
+package game;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the per-frame cost of testing the ship against every asteroid near it.
+ * No bullets are in flight and checkCollisions doesn't stop at the first hit,
+ * so every broad-phase candidate goes through the narrow phase.
+ * circleTest compares the narrow phase with and without the bounding-circle pretest.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ShipCollisionBenchmark {
+    
+    @Param({"10000", "100000"})
+    public int asteroidCount;
+    
+    @Param({"true", "false"})
+    public boolean circleTest;
+    
+    private AsteroidField field;
+    private Ship ship;
+    
+    /**
+     * Builds a world with the requested number of asteroids and a ship at the center.
+     */
+    @Setup(Level.Iteration)
+    public void setup() {
+        World world = new World(800, 600, 1);
+        field = world.getAsteroidField();
+        field.spawnAsteroids(asteroidCount);
+        field.setCircleTest(circleTest);
+        ship = world.getShip();
+    }
+    
+    @Benchmark
+    public boolean shipCollisions() {
+        return field.checkCollisions(ship);
+    }
+}
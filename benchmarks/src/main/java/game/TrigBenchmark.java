@@ -0,0 +1,75 @@
+package game;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares FastTrig with Math and StrictMath on a batch of angles in degrees,
+ * either whole degrees like most of the game's angles or arbitrary fractional ones.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TrigBenchmark {
+    
+    private static final int ANGLE_COUNT = 1024;
+    
+    @Param({"true", "false"})
+    public boolean wholeDegrees;
+    
+    private double[] angles;
+    
+    /**
+     * Picks the angles, spread over a few turns in both directions like the ship's rotation.
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        angles = new double[ANGLE_COUNT];
+        for (int i = 0; i < ANGLE_COUNT; i++) {
+            angles[i] = wholeDegrees ? random.nextInt(1440) - 720 : random.nextDouble() * 1440 - 720;
+        }
+    }
+    
+    @Benchmark
+    public double math() {
+        double sum = 0;
+        for (double angle : angles) {
+            sum += Math.sin(Math.toRadians(angle)) + Math.cos(Math.toRadians(angle));
+        }
+        return sum;
+    }
+    
+    @Benchmark
+    public double strictMath() {
+        double sum = 0;
+        for (double angle : angles) {
+            sum += StrictMath.sin(StrictMath.toRadians(angle)) + StrictMath.cos(StrictMath.toRadians(angle));
+        }
+        return sum;
+    }
+    
+    @Benchmark
+    public double fastTrig() {
+        double sum = 0;
+        for (double angle : angles) {
+            sum += FastTrig.sin(angle) + FastTrig.cos(angle);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,45 @@
+package game;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the per-object motion helpers in Utilities.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class UtilitiesBenchmark {
+    
+    private Point position;
+    private double angle;
+    
+    /**
+     * Sets up a point to move.
+     */
+    @Setup
+    public void setup() {
+        position = new Point(400, 300);
+        angle = 37;
+    }
+    
+    @Benchmark
+    public Point updatePosition() {
+        position = Utilities.updatePosition(position, angle, 1.0);
+        Utilities.wrapAround(position, 800, 600);
+        return position;
+    }
+}
@@ -3,22 +3,74 @@ package game;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * This class manages all asteroids in the field in the game including spawning, updating,etc.
  *  Asteroids spawn from screen edges, not middle, and split
  * into smaller asteroids when destroyed(only once).
+ * Asteroids are stored as a structure of arrays: asteroid i is index i of every
+ * per-asteroid array, so the update and collision loops stream through memory.
  */
 public class AsteroidField implements Updatable, Drawable{
 
-    private static double spawningMultiplier;
-    private ArrayList<Asteroid> asteroids;
+    private double spawningMultiplier;
+    private static final int GRID_CELL_SIZE = 64;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 20000;
+    private static final int PARALLEL_CHUNK_SIZE = 4096;
+    private static final int DEFAULT_COLLISION_PARALLEL_THRESHOLD = 2048;
+    private static final int COLLISION_CHUNK_SIZE = 512;
+    // Stands in for the bullet index in a candidate pair that tests the ship
+    private static final int SHIP = -1;
+    // Extra reach for the bounding-circle test, so rounding in the rotated points
+    // can never reject a pair that really touches
+    private static final double CIRCLE_SLACK = 1e-6;
+    private int parallelThreshold;
+    private int collisionParallelThreshold;
+    private boolean circleTest;
     private Random random;
-    private Asteroids gameReference;
-    private ArrayList<Asteroid> delete;
+    private ShapeCache shapeCache;
+    private World gameReference;
+    private int width;
+    private int height;
+    private IntList delete;
+    private SpatialGrid grid;
+    private IntList candidates;
+    private IntList pairs;
+    private IntList hitBuffer;
+    // The ship's bounding circle, set at the start of every ship collision check
+    private double shipCircleX;
+    private double shipCircleY;
+    private double shipRadius;
+    // The ship's rotated points as flat arrays, for testing them all at once
+    private double[] shipPointX = new double[0];
+    private double[] shipPointY = new double[0];
     
-    private Point[][] shapes = {{
+    // Destroyed asteroids are only flagged as dead during a frame, so indices stay
+    // valid for the spatial grid; they are compacted away at the next update.
+    private int count;
+    private int deadCount;
+    private double[] x;
+    private double[] y;
+    private double[] previousX;
+    private double[] previousY;
+    private double[] heading;
+    private double[] velocity;
+    private double[] dx;
+    private double[] dy;
+    private double[] scale;
+    private double[] rotation;
+    private int[] shape;
+    private AsteroidShape[] geometry;
+    private boolean[] alive;
+    
+    private static Point[][] shapes = {{
         new Point(9, -8),
         new Point(6, -2),
         new Point(10, 1),
@@ -55,17 +107,46 @@ public class AsteroidField implements Updatable, Drawable{
         new Point(-2, -9)
     }};
 
+    // Moves the asteroids a vector at a time when the vector module is available
+    private static MotionKernel motionKernel = MotionKernel.load();
+    
     /**
      * Constructs a new AsteroidField.
      * 
-     * @param game reference to the main Asteroids game instance
+     * @param game reference to the world this field belongs to
      */
-    public AsteroidField(Asteroids game) {
+    public AsteroidField(World game) {
         this.gameReference = game;
-        this.asteroids = new ArrayList<Asteroid>();
-        this.random = new Random();
-        this.delete = new ArrayList<Asteroid>();
+        this.width = game.getWidth();
+        this.height = game.getHeight();
+        this.random = game.getRandom();
+        this.shapeCache = game.getShapeCache();
+        this.delete = new IntList(16);
+        this.grid = new SpatialGrid(width, height, GRID_CELL_SIZE);
+        this.candidates = new IntList(64);
+        this.pairs = new IntList(128);
+        this.hitBuffer = new IntList(16);
         this.spawningMultiplier = 1.1;
+        this.parallelThreshold = Integer.getInteger("game.parallelThreshold", DEFAULT_PARALLEL_THRESHOLD);
+        this.collisionParallelThreshold = Integer.getInteger("game.collisionParallelThreshold",
+                DEFAULT_COLLISION_PARALLEL_THRESHOLD);
+        this.circleTest = !"false".equals(System.getProperty("game.circleTest"));
+        
+        this.count = 0;
+        this.deadCount = 0;
+        this.x = new double[INITIAL_CAPACITY];
+        this.y = new double[INITIAL_CAPACITY];
+        this.previousX = new double[INITIAL_CAPACITY];
+        this.previousY = new double[INITIAL_CAPACITY];
+        this.heading = new double[INITIAL_CAPACITY];
+        this.velocity = new double[INITIAL_CAPACITY];
+        this.dx = new double[INITIAL_CAPACITY];
+        this.dy = new double[INITIAL_CAPACITY];
+        this.scale = new double[INITIAL_CAPACITY];
+        this.rotation = new double[INITIAL_CAPACITY];
+        this.shape = new int[INITIAL_CAPACITY];
+        this.geometry = new AsteroidShape[INITIAL_CAPACITY];
+        this.alive = new boolean[INITIAL_CAPACITY];
     }
     
     /**
@@ -77,53 +158,179 @@ public class AsteroidField implements Updatable, Drawable{
      * @param scale the scale of the destroyed asteroid
      */
     public void splitAsteroid(Point p, double scale) {
+        splitAsteroid(p.x, p.y, scale);
+    }
+    
+    /**
+     * Creates the smaller asteroids for a destroyed asteroid at (px, py).
+     * 
+     * @param px the x-coordinate where the asteroid was destroyed
+     * @param py the y-coordinate where the asteroid was destroyed
+     * @param scale the scale of the destroyed asteroid
+     */
+    private void splitAsteroid(double px, double py, double scale) {
+        SplitEvent event = new SplitEvent();
+        event.begin();
         double newScale = scale * 0.65; 
+        int pieces = 0;
         if (newScale > 2.5) {
             for (int i = 0; i < 2; i++) {
-                Asteroid a = new Asteroid(
-                    shapes[random.nextInt(3)], 
-                    p.clone(), 
-                    random.nextDouble() * 360, 
-                    2.1, 
-                    newScale
-                );
-                asteroids.add(a);
-                a.position = Utilities.updatePosition(a.position, a.rotation + (i * 180), 15);
+                int template = random.nextInt(3);
+                double angle = random.nextDouble() * 360;
+                int a = add(template, px, py, angle, 2.1, newScale);
+                x[a] += Utilities.directionX(angle + (i * 180), 15);
+                y[a] += Utilities.directionY(angle + (i * 180), 15);
+                insert(a);
+                pieces++;
             }
         }
+        
+        event.end();
+        if (event.shouldCommit()) {
+            event.frame = gameReference.getFrame();
+            event.scale = scale;
+            event.pieces = pieces;
+            event.asteroids = getAsteroidCount();
+            event.commit();
+        }
     }
     
     /**
-     * Tis inner class represents a single asteroid.
-     * Asteroids go around screen and a across edges.
+     * Appends a new asteroid to the arrays.
+     * 
+     * @param template index of the shape template in shapes
+     * @param px initial x-coordinate
+     * @param py initial y-coordinate
+     * @param angle heading and rotation angle in degrees
+     * @param speed movement speed
+     * @param size size multiplier
+     * @return the index of the new asteroid
+     */
+    private int add(int template, double px, double py, double angle, double speed, double size) {
+        if (count == x.length) {
+            grow(count * 2);
+        }
+        int a = count++;
+        x[a] = px;
+        y[a] = py;
+        previousX[a] = px;
+        previousY[a] = py;
+        heading[a] = angle;
+        velocity[a] = speed;
+        dx[a] = Utilities.directionX(angle, speed);
+        dy[a] = Utilities.directionY(angle, speed);
+        scale[a] = size;
+        // The heading and scale stay exact; only the shared shape is rounded
+        rotation[a] = ShapeCache.quantizeAngle(angle);
+        shape[a] = template;
+        geometry[a] = shapeCache.get(template, size, angle);
+        alive[a] = true;
+        return a;
+    }
+    
+    /**
+     * Resizes every per-asteroid array.
+     * 
+     * @param capacity the new number of asteroids the arrays can hold
      */
-    public class Asteroid extends Polygon implements Updatable, Drawable{
+    private void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        heading = Arrays.copyOf(heading, capacity);
+        velocity = Arrays.copyOf(velocity, capacity);
+        dx = Arrays.copyOf(dx, capacity);
+        dy = Arrays.copyOf(dy, capacity);
+        scale = Arrays.copyOf(scale, capacity);
+        rotation = Arrays.copyOf(rotation, capacity);
+        shape = Arrays.copyOf(shape, capacity);
+        geometry = Arrays.copyOf(geometry, capacity);
+        alive = Arrays.copyOf(alive, capacity);
+    }
+    
+    /**
+     * Removes dead asteroids by sliding the live ones down, keeping their order.
+     */
+    private void compact() {
+        if (deadCount == 0) {
+            return;
+        }
+        int live = 0;
+        for (int a = 0; a < count; a++) {
+            if (!alive[a]) {
+                continue;
+            }
+            if (live != a) {
+                x[live] = x[a];
+                y[live] = y[a];
+                previousX[live] = previousX[a];
+                previousY[live] = previousY[a];
+                heading[live] = heading[a];
+                velocity[live] = velocity[a];
+                dx[live] = dx[a];
+                dy[live] = dy[a];
+                scale[live] = scale[a];
+                rotation[live] = rotation[a];
+                shape[live] = shape[a];
+                geometry[live] = geometry[a];
+                alive[live] = true;
+            }
+            live++;
+        }
+        Arrays.fill(geometry, live, count, null);
+        count = live;
+        deadCount = 0;
+    }
+    
+    /**
+     * Tis inner class is a view of a single asteroid as a Polygon, for code that
+     * wants to treat it like any other shape. It is a snapshot: the asteroid itself
+     * lives in the field's arrays and changes to the view are not written back.
+     */
+    public class Asteroid extends Polygon implements Drawable{
 
+        private int index;
         private double velocity;
         private double scale;
         
         /**
-         * Constructs a new Asteroid with specified properties.
+         * Constructs a view of the asteroid at the given index.
          * 
-         * @param shape array of points defining the asteroid's shape
-         * @param p initial position
-         * @param angle initial rotation angle
-         * @param velocity movement speed
-         * @param scale size multiplier
+         * @param index the index of the asteroid in the field's arrays
          */
-        private Asteroid(Point[] shape, Point p, double angle, double velocity, double scale) {
-            super(Utilities.rotatePoints(Utilities.scalePoints(shape, scale), angle), p, angle);
-            this.scale = scale;
-            this.velocity = velocity;
+        private Asteroid(int index) {
+            super(geometry[index].getOutline(), new Point(x[index], y[index]), AsteroidField.this.rotation[index]);
+            this.index = index;
+            this.scale = AsteroidField.this.scale[index];
+            this.velocity = AsteroidField.this.velocity[index];
         }
-
+        
         /**
-         * Updates the asteroid's position each frame.
+         * Returns where this asteroid was in the field's arrays when the view was made.
+         * 
+         * @return the asteroid's index
          */
-        @Override
-        public void update() {
-            position = Utilities.updatePosition(position, rotation, velocity);
-            Utilities.wrapAround(position);
+        public int getIndex() {
+            return index;
+        }
+        
+        /**
+         * Returns the asteroid's size multiplier.
+         * 
+         * @return the scale
+         */
+        public double getScale() {
+            return scale;
+        }
+        
+        /**
+         * Returns the asteroid's movement speed.
+         * 
+         * @return the velocity
+         */
+        public double getVelocity() {
+            return velocity;
         }
 
         /**
@@ -136,25 +343,206 @@ public class AsteroidField implements Updatable, Drawable{
             this.drawPolygon(brush);
         }
     }
+    
+    /**
+     * Returns views of all asteroids currently in the field.
+     * 
+     * @return a new list with one Asteroid view per live asteroid
+     */
+    public List<Asteroid> getAsteroids() {
+        List<Asteroid> views = new ArrayList<Asteroid>(count - deadCount);
+        for (int a = 0; a < count; a++) {
+            if (alive[a]) {
+                views.add(new Asteroid(a));
+            }
+        }
+        return views;
+    }
 
     /**
      * Updates all asteroids and spawns new ones randomly.
+     * Asteroids never turn, so each one moves by the same precomputed step every frame.
+     * With at least parallelThreshold asteroids the moving is split into chunks on the
+     * common ForkJoinPool; each asteroid only touches its own array entries, so the
+     * result is the same as moving them one by one. Spawning and removal happen
+     * before that on this thread, and the spatial grid is rebuilt afterwards.
      */
     @Override
     public void update() {
-        if(Math.random()*100 < spawningMultiplier) {
+        compact();
+        if(random.nextDouble()*100 < spawningMultiplier) {
             Point spawnPoint = getEdgeSpawnPoint();
-            Asteroid a = new Asteroid(
-                    shapes[random.nextInt(3)], 
-                    spawnPoint,
+            add(random.nextInt(3), 
+                    spawnPoint.x,
+                    spawnPoint.y,
                     (double)(random.nextInt(360)), 
                     1.0, 
-                    (Math.random()*2)+2.5);
-            this.asteroids.add(a);
+                    (random.nextDouble()*2)+2.5);
         }
         
-        for(Asteroid a: asteroids) {
-            a.update();
+        if (count >= parallelThreshold) {
+            ForkJoinPool.commonPool().invoke(new MoveTask(0, count));
+        } else {
+            move(0, count);
+        }
+        rebuildGrid();
+    }
+    
+    /**
+     * Moves a range of asteroids by one step and wraps them around the screen.
+     * 
+     * @param from the index of the first asteroid to move
+     * @param to one past the index of the last asteroid to move
+     */
+    private void move(int from, int to) {
+        motionKernel.move(x, y, previousX, previousY, dx, dy, from, to, width, height);
+    }
+    
+    /**
+     * Inner class that moves a range of asteroids, splitting it in half
+     * until the pieces are small enough to move on one thread.
+     */
+    @SuppressWarnings("serial")
+    private class MoveTask extends RecursiveAction {
+        
+        private final int from;
+        private final int to;
+        
+        /**
+         * Constructs a task for a range of asteroids.
+         * 
+         * @param from the index of the first asteroid to move
+         * @param to one past the index of the last asteroid to move
+         */
+        private MoveTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+        
+        /**
+         * Moves the range directly or forks two halves.
+         */
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_CHUNK_SIZE) {
+                move(from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new MoveTask(from, middle), new MoveTask(middle, to));
+            }
+        }
+    }
+    
+    /**
+     * Returns the kernel asteroids are moved with, e.g. to see whether the vector one was loaded.
+     * 
+     * @return the motion kernel
+     */
+    public static MotionKernel getMotionKernel() {
+        return motionKernel;
+    }
+    
+    /**
+     * Creates an empty cache for shapes built from this field's templates, sized by the
+     * game.shapeCacheSize system property. Each world makes its own, so games running
+     * side by side don't share a lock or mix their hit counts.
+     * 
+     * @return the new shape cache
+     */
+    public static ShapeCache newShapeCache() {
+        return new ShapeCache(shapes, Integer.getInteger("game.shapeCacheSize", 4096));
+    }
+    
+    /**
+     * Returns the cache this field's asteroid geometry is shared through, e.g. to read its hit rate.
+     * 
+     * @return the shape cache
+     */
+    public ShapeCache getShapeCache() {
+        return shapeCache;
+    }
+    
+    /**
+     * Sets how many asteroids the field needs before it moves them in parallel.
+     * The default comes from the game.parallelThreshold system property.
+     * 
+     * @param threshold the asteroid count to go parallel at; Integer.MAX_VALUE keeps it serial
+     */
+    public void setParallelThreshold(int threshold) {
+        this.parallelThreshold = threshold;
+    }
+    
+    /**
+     * Sets the chance, in percent, that a new asteroid spawns at the edge each frame.
+     * 
+     * @param multiplier the spawn chance per frame; 0 stops spawning
+     */
+    public void setSpawningMultiplier(double multiplier) {
+        this.spawningMultiplier = multiplier;
+    }
+    
+    /**
+     * Clears the spatial grid and re-inserts every asteroid at its current bounds.
+     */
+    private void rebuildGrid() {
+        grid.clear();
+        for (int a = 0; a < count; a++) {
+            insert(a);
+        }
+    }
+    
+    /**
+     * Adds one asteroid to the spatial grid under its collision bounding box.
+     * 
+     * @param a the index of the asteroid
+     */
+    private void insert(int a) {
+        AsteroidShape g = geometry[a];
+        grid.insert(a, g.getMinX() + x[a], g.getMinY() + y[a], g.getMaxX() + x[a], g.getMaxY() + y[a]);
+    }
+    
+    /**
+     * Broad-phase query for the asteroids that might contain a point.
+     * Only asteroids sharing the point's grid cell are returned.
+     * 
+     * @param p the point to look up
+     * @param out the list the candidate asteroid indices are added to
+     */
+    public void findCandidates(Point p, IntList out) {
+        grid.query(p.x, p.y, out);
+    }
+    
+    /**
+     * Broad-phase query for the asteroids that might overlap a bounding box.
+     * 
+     * @param minX the left edge of the box
+     * @param minY the top edge of the box
+     * @param maxX the right edge of the box
+     * @param maxY the bottom edge of the box
+     * @param out the list the candidate asteroid indices are added to
+     */
+    public void findCandidates(double minX, double minY, double maxX, double maxY, IntList out) {
+        grid.query(minX, minY, maxX, maxY, out);
+    }
+    
+    /**
+     * Spawns asteroids at random positions across the whole field at once,
+     * e.g. to set up a large field for a stress test or benchmark.
+     * 
+     * @param count the number of asteroids to add
+     */
+    public void spawnAsteroids(int count) {
+        for (int i = 0; i < count; i++) {
+            int template = random.nextInt(3);
+            int px = random.nextInt(width);
+            int py = random.nextInt(height);
+            int a = add(template, 
+                    px,
+                    py,
+                    (double)(random.nextInt(360)), 
+                    1.0, 
+                    (random.nextDouble()*2)+2.5);
+            insert(a);
         }
     }
     
@@ -167,13 +555,13 @@ public class AsteroidField implements Updatable, Drawable{
         int edge = random.nextInt(4); 
         
         if (edge == 0) {
-            return new Point(random.nextInt(Asteroids.width), -20);
+            return new Point(random.nextInt(width), -20);
         } else if (edge == 1) {
-            return new Point(Asteroids.width + 20, random.nextInt(Asteroids.height));
+            return new Point(width + 20, random.nextInt(height));
         } else if (edge == 2) {
-            return new Point(random.nextInt(Asteroids.width), Asteroids.height + 20);
+            return new Point(random.nextInt(width), height + 20);
         } else {
-            return new Point(-20, random.nextInt(Asteroids.height));
+            return new Point(-20, random.nextInt(height));
         }
     }
 
@@ -184,31 +572,72 @@ public class AsteroidField implements Updatable, Drawable{
      */
     @Override
     public void draw(Graphics brush) {
+        draw(brush, 1);
+    }
+    
+    /**
+     * Draws all asteroids between their previous and current positions, skipping the ones
+     * outside the Graphics object's clip. They are counted as drawn or culled in the
+     * world's RenderBatch, which starts a new frame for it.
+     * 
+     * @param brush the Graphics object used for drawing
+     * @param alpha how far between the last tick and the next one
+     */
+    @Override
+    public void draw(Graphics brush, double alpha) {
+        RenderBatch view = gameReference.getRenderBatch();
+        view.begin(brush, width, height);
+        draw(brush, alpha, view);
+    }
+    
+    /**
+     * Draws all asteroids between their previous and current positions straight away,
+     * skipping the ones outside the view.
+     * 
+     * @param brush the Graphics object used for drawing
+     * @param alpha how far between the last tick and the next one
+     * @param view the batch whose visible area and counters are used; nothing is added to it
+     */
+    public void draw(Graphics brush, double alpha, RenderBatch view) {
         brush.setColor(Color.white);
-        for(Asteroid a: asteroids) {
-            a.draw(brush);
+        for (int a = 0; a < count; a++) {
+            if (alive[a]) {
+                geometry[a].draw(brush,
+                        Utilities.interpolate(previousX[a], x[a], alpha),
+                        Utilities.interpolate(previousY[a], y[a], alpha), view);
+            }
+        }
+    }
+    
+    /**
+     * Adds all asteroids between their previous and current positions to a batch.
+     * 
+     * @param batch the batch collecting this frame's drawing
+     * @param alpha how far between the last tick and the next one
+     */
+    public void draw(RenderBatch batch, double alpha) {
+        for (int a = 0; a < count; a++) {
+            if (alive[a]) {
+                geometry[a].draw(batch,
+                        Utilities.interpolate(previousX[a], x[a], alpha),
+                        Utilities.interpolate(previousY[a], y[a], alpha));
+            }
         }
     }
     
     /**
      * Checks for collisions between bullets and asteroids.
      * Destroys asteroids when hit and splits them.
+     * Each bullet is swept along the path it moved this tick, so it can't skip over an asteroid,
+     * and is only tested against asteroids in the grid cells that path overlaps.
+     * An asteroid can only be destroyed by one bullet.
      * 
      * @param ship the player's ship containing bullets to check
      */
     public void checkBulletCollisions(Ship ship) {
-        for (Bullet bullet : ship.getBullets()) {
-            for (Asteroid asteroid : asteroids) {
-                if (asteroid.contains(bullet.getPosition())) {
-                    delete.add(asteroid);
-                    for (int i = 0; i < 60; i++) {
-                        bullet.update();
-                    }
-                    gameReference.newExplosion(asteroid.position);
-                    break;
-                }
-            }
-        }
+        ArrayList<Bullet> bullets = ship.getBullets();
+        IntList hits = findBulletHits(bullets);
+        commitBulletHits(bullets, hits, hits.size());
         cleanup();
     }
     
@@ -219,36 +648,422 @@ public class AsteroidField implements Updatable, Drawable{
      * @return true if the ship collides with any asteroid
      */
     public boolean checkShipCollision(Ship ship) {
-        for (Asteroid asteroid : asteroids) {
-            Point[] shipPoints = ship.getPoints();
-            for (Point p : shipPoints) {
-                if (asteroid.contains(p)) {
-                    return true;
-                }
+        transformShip(ship);
+        candidates.clear();
+        findCandidates(ship.getMinX(), ship.getMinY(), ship.getMaxX(), ship.getMaxY(), candidates);
+        for (int k = 0; k < candidates.size(); k++) {
+            int a = candidates.get(k);
+            if (alive[a] && hitsShip(a)) {
+                return true;
             }
         }
         return false;
     }
     
     /**
-     * Removes destroyed asteroids and creates split asteroids.
+     * Checks bullets and the ship against the asteroids in two phases.
+     * First every bullet/asteroid and ship/asteroid pair is tested without changing
+     * anything; with enough broad-phase candidates this runs in parallel, each task
+     * filling its own hit buffer, and the buffers are joined in candidate order. Then the
+     * hits are applied one by one on this thread (score, explosions, splits), so the outcome
+     * is the same as calling checkBulletCollisions and then checkShipCollision.
+     * 
+     * @param ship the player's ship containing bullets to check
+     * @return true if the ship collides with any asteroid
+     */
+    public boolean checkCollisions(Ship ship) {
+        ArrayList<Bullet> bullets = ship.getBullets();
+        transformShip(ship);
+        pairs.clear();
+        addBulletPairs(bullets, pairs);
+        addShipPairs(ship.getMinX(), ship.getMinY(), ship.getMaxX(), ship.getMaxY(), pairs);
+        IntList hits = testPairs(bullets, pairs);
+        
+        // The ship's pairs were added last, so its hits are at the end
+        int shipHits = hits.size();
+        while (shipHits > 0 && hits.get(shipHits - 2) == SHIP) {
+            shipHits -= 2;
+        }
+        commitBulletHits(bullets, hits, shipHits);
+        int firstSplit = count;
+        cleanup();
+        
+        for (int k = shipHits; k < hits.size(); k += 2) {
+            if (alive[hits.get(k + 1)]) {
+                return true;
+            }
+        }
+        // Asteroids split off this frame weren't there during the first phase
+        for (int a = firstSplit; a < count; a++) {
+            if (hitsShip(a)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Finds every bullet/asteroid pair where the bullet is inside the asteroid.
+     * 
+     * @param bullets the bullets to check
+     * @return the hits as (bullet index, asteroid index) pairs in bullet order
+     */
+    private IntList findBulletHits(ArrayList<Bullet> bullets) {
+        pairs.clear();
+        addBulletPairs(bullets, pairs);
+        return testPairs(bullets, pairs);
+    }
+    
+    /**
+     * Adds a (bullet index, asteroid index) pair for every live asteroid in the grid cells
+     * each bullet's path from this tick overlaps, in bullet order.
+     * 
+     * @param bullets the bullets to check
+     * @param out the list the pairs are added to
+     */
+    private void addBulletPairs(List<Bullet> bullets, IntList out) {
+        for (int b = 0; b < bullets.size(); b++) {
+            Bullet bullet = bullets.get(b);
+            Point p = bullet.getPosition();
+            double startX = bullet.getPreviousX();
+            double startY = bullet.getPreviousY();
+            candidates.clear();
+            grid.query(Math.min(startX, p.x), Math.min(startY, p.y), Math.max(startX, p.x), Math.max(startY, p.y), candidates);
+            addPairs(b, candidates, out);
+        }
+    }
+    
+    /**
+     * Adds a (SHIP, asteroid index) pair for every live asteroid in the grid cells the ship overlaps.
+     * 
+     * @param minX the left edge of the ship
+     * @param minY the top edge of the ship
+     * @param maxX the right edge of the ship
+     * @param maxY the bottom edge of the ship
+     * @param out the list the pairs are added to
+     */
+    private void addShipPairs(double minX, double minY, double maxX, double maxY, IntList out) {
+        candidates.clear();
+        grid.query(minX, minY, maxX, maxY, candidates);
+        addPairs(SHIP, candidates, out);
+    }
+    
+    /**
+     * Pairs one bullet, or the ship, with each live asteroid in a list of candidates.
+     * 
+     * @param b the index of the bullet, or SHIP
+     * @param found the broad-phase candidates
+     * @param out the list the pairs are added to
+     */
+    private void addPairs(int b, IntList found, IntList out) {
+        for (int k = 0; k < found.size(); k++) {
+            int a = found.get(k);
+            if (alive[a]) {
+                out.add(b);
+                out.add(a);
+            }
+        }
+    }
+    
+    /**
+     * Tests candidate pairs, in parallel once there are collisionParallelThreshold of them.
+     * A bullet that hits several asteroids has its hits ordered by how far along its path
+     * they are, so the asteroid it reaches first is the one it destroys.
+     * 
+     * @param bullets the bullets the pairs refer to
+     * @param candidatePairs (bullet index or SHIP, asteroid index) pairs
+     * @return the pairs that hit, in candidate order apart from that sorting
+     */
+    private IntList testPairs(List<Bullet> bullets, IntList candidatePairs) {
+        int pairCount = candidatePairs.size() / 2;
+        IntList hits;
+        if (pairCount >= collisionParallelThreshold) {
+            hits = ForkJoinPool.commonPool().invoke(new PairTask(bullets, candidatePairs, 0, pairCount));
+        } else {
+            hitBuffer.clear();
+            hits = testPairs(bullets, candidatePairs, 0, pairCount, hitBuffer);
+        }
+        int first = 0;
+        while (first < hits.size()) {
+            int b = hits.get(first);
+            int end = first + 2;
+            while (end < hits.size() && hits.get(end) == b) {
+                end += 2;
+            }
+            if (b != SHIP && end - first > 2) {
+                Bullet bullet = bullets.get(b);
+                Point p = bullet.getPosition();
+                sortBySweep(hits, first, end, bullet.getPreviousX(), bullet.getPreviousY(), p.x, p.y);
+            }
+            first = end;
+        }
+        return hits;
+    }
+    
+    /**
+     * Tests a range of candidate pairs. Only reads the field, so several
+     * ranges can be tested at the same time.
+     * 
+     * @param bullets the bullets the pairs refer to
+     * @param candidatePairs (bullet index or SHIP, asteroid index) pairs
+     * @param from the index of the first pair to test
+     * @param to one past the index of the last pair to test
+     * @param hits the list the pairs that hit are added to
+     * @return the hits list
+     */
+    private IntList testPairs(List<Bullet> bullets, IntList candidatePairs, int from, int to, IntList hits) {
+        for (int k = from; k < to; k++) {
+            int b = candidatePairs.get(2 * k);
+            int a = candidatePairs.get(2 * k + 1);
+            boolean hit;
+            if (b == SHIP) {
+                hit = hitsShip(a);
+            } else {
+                Bullet bullet = bullets.get(b);
+                Point p = bullet.getPosition();
+                hit = sweep(a, bullet.getPreviousX(), bullet.getPreviousY(), p.x, p.y) >= 0;
+            }
+            if (hit) {
+                hits.add(b);
+                hits.add(a);
+            }
+        }
+        return hits;
+    }
+    
+    /**
+     * Sweeps a bullet's path from this tick against an asteroid.
+     * Both moved this tick, so the start of the path is shifted by the asteroid's own step
+     * to test the bullet's movement relative to the asteroid.
+     * 
+     * @param a the index of the asteroid
+     * @param startX the x-coordinate the bullet started the tick at
+     * @param startY the y-coordinate the bullet started the tick at
+     * @param endX the x-coordinate the bullet is at now
+     * @param endY the y-coordinate the bullet is at now
+     * @return how far along the path the bullet first touches the asteroid, from 0 to 1, or -1 if it doesn't
+     */
+    private double sweep(int a, double startX, double startY, double endX, double endY) {
+        return geometry[a].sweep(x[a], y[a], startX + dx[a], startY + dy[a], endX, endY);
+    }
+    
+    /**
+     * Orders one bullet's hits by how far along its path they are. A bullet rarely hits
+     * more than one asteroid in a tick, so the sweep is simply redone for the comparisons.
+     * 
+     * @param hits (bullet index, asteroid index) pairs
+     * @param first the index in hits where the bullet's pairs start
+     * @param end the index in hits just past the bullet's pairs
+     * @param startX the x-coordinate the bullet started the tick at
+     * @param startY the y-coordinate the bullet started the tick at
+     * @param endX the x-coordinate the bullet is at now
+     * @param endY the y-coordinate the bullet is at now
+     */
+    private void sortBySweep(IntList hits, int first, int end, double startX, double startY, double endX, double endY) {
+        for (int i = first + 3; i < end; i += 2) {
+            int a = hits.get(i);
+            double t = sweep(a, startX, startY, endX, endY);
+            int j = i;
+            while (j > first + 1 && sweep(hits.get(j - 2), startX, startY, endX, endY) > t) {
+                hits.set(j, hits.get(j - 2));
+                j -= 2;
+            }
+            hits.set(j, a);
+        }
+    }
+    
+    /**
+     * Works out the ship's rotated points and bounding circle once for this frame's checks.
+     * 
+     * @param ship the player's ship
+     */
+    private void transformShip(Ship ship) {
+        Point[] shipPoints = ship.getPoints();
+        if (shipPointX.length != shipPoints.length) {
+            shipPointX = new double[shipPoints.length];
+            shipPointY = new double[shipPoints.length];
+        }
+        for (int i = 0; i < shipPoints.length; i++) {
+            shipPointX[i] = shipPoints[i].x;
+            shipPointY[i] = shipPoints[i].y;
+        }
+        shipCircleX = ship.getBoundsCenterX();
+        shipCircleY = ship.getBoundsCenterY();
+        shipRadius = ship.getBoundingRadius();
+    }
+    
+    /**
+     * Checks whether any of the ship's points is inside an asteroid.
+     * Pairs whose bounding circles are apart are rejected with a squared-distance
+     * test first, unless circleTest is off; none of the ship's points can be inside such
+     * an asteroid. The points that pass are tested together as one batch.
+     * 
+     * @param a the index of the asteroid
+     * @return true if they overlap
+     */
+    private boolean hitsShip(int a) {
+        AsteroidShape shape = geometry[a];
+        if (!circleTest) {
+            return shape.containsAll(x[a], y[a], shipPointX, shipPointY, shipPointX.length, null) > 0;
+        }
+        double distanceX = x[a] + shape.getBoundsCenterX() - shipCircleX;
+        double distanceY = y[a] + shape.getBoundsCenterY() - shipCircleY;
+        double reach = shape.getBoundingRadius() + shipRadius + CIRCLE_SLACK;
+        if (distanceX * distanceX + distanceY * distanceY > reach * reach) {
+            return false;
+        }
+        return shape.containsAll(x[a], y[a], shipPointX, shipPointY, shipPointX.length, null) > 0;
+    }
+    
+    /**
+     * Applies bullet hits in order. Each bullet destroys at most one asteroid, the first
+     * of its hits that an earlier bullet hasn't already destroyed, and is then used up.
+     * 
+     * @param bullets the bullets that were checked
+     * @param hits (bullet index, asteroid index) pairs in bullet order
+     * @param end the index in hits just past the last bullet hit
+     */
+    private void commitBulletHits(ArrayList<Bullet> bullets, IntList hits, int end) {
+        int usedBullet = -1;
+        for (int k = 0; k < end; k += 2) {
+            int b = hits.get(k);
+            int a = hits.get(k + 1);
+            if (b == usedBullet || !alive[a]) {
+                continue;
+            }
+            alive[a] = false;
+            deadCount++;
+            delete.add(a);
+            Bullet bullet = bullets.get(b);
+            for (int i = 0; i < 60; i++) {
+                bullet.update();
+            }
+            gameReference.newExplosion(x[a], y[a]);
+            usedBullet = b;
+        }
+    }
+    
+    /**
+     * Inner class that tests a range of candidate pairs,
+     * splitting it in half until the pieces are small enough for one thread.
+     * Each piece fills its own hit list and the lists are joined left to right.
+     */
+    @SuppressWarnings("serial")
+    private class PairTask extends RecursiveTask<IntList> {
+        
+        private final List<Bullet> bullets;
+        private final IntList candidatePairs;
+        private final int from;
+        private final int to;
+        
+        /**
+         * Constructs a task for a range of candidate pairs.
+         * 
+         * @param bullets the bullets the pairs refer to
+         * @param candidatePairs (bullet index or SHIP, asteroid index) pairs
+         * @param from the index of the first pair to test
+         * @param to one past the index of the last pair to test
+         */
+        private PairTask(List<Bullet> bullets, IntList candidatePairs, int from, int to) {
+            this.bullets = bullets;
+            this.candidatePairs = candidatePairs;
+            this.from = from;
+            this.to = to;
+        }
+        
+        /**
+         * Tests the range directly or forks two halves.
+         * 
+         * @return the hits for the range in candidate order
+         */
+        @Override
+        protected IntList compute() {
+            if (to - from <= COLLISION_CHUNK_SIZE) {
+                return testPairs(bullets, candidatePairs, from, to, new IntList(16));
+            }
+            int middle = (from + to) >>> 1;
+            PairTask left = new PairTask(bullets, candidatePairs, from, middle);
+            left.fork();
+            IntList rightHits = new PairTask(bullets, candidatePairs, middle, to).compute();
+            IntList hits = left.join();
+            hits.addAll(rightHits);
+            return hits;
+        }
+    }
+    
+    /**
+     * Sets how many broad-phase candidate pairs there need to be before collisions are
+     * checked in parallel. The default comes from the game.collisionParallelThreshold system property.
+     * 
+     * @param threshold the candidate pair count to go parallel at; Integer.MAX_VALUE keeps it serial
+     */
+    public void setCollisionParallelThreshold(int threshold) {
+        this.collisionParallelThreshold = threshold;
+    }
+    
+    /**
+     * Turns the bounding-circle pretest of ship collisions on or off, e.g. to measure what it saves.
+     * It is on unless the game.circleTest system property is false.
+     * 
+     * @param enabled whether to reject far-apart pairs before testing the ship's points
+     */
+    public void setCircleTest(boolean enabled) {
+        this.circleTest = enabled;
+    }
+    
+    /**
+     * Creates split asteroids for the ones destroyed this frame.
+     * The destroyed asteroids stay in the arrays, flagged dead, until the next update.
      */
     private void cleanup() {
-        for(Asteroid a: delete) {
-            double scale = a.scale;
-            Point position = a.position.clone();
-            asteroids.remove(a);
-            splitAsteroid(position, scale);
+        if (delete.size() == 0) {
+            return;
+        }
+        CleanupEvent event = new CleanupEvent();
+        event.begin();
+        int before = getAsteroidCount();
+        for (int k = 0; k < delete.size(); k++) {
+            int a = delete.get(k);
+            splitAsteroid(x[a], y[a], scale[a]);
+        }
+        
+        event.end();
+        if (event.shouldCommit()) {
+            event.frame = gameReference.getFrame();
+            event.hit = delete.size();
+            event.before = before;
+            event.after = getAsteroidCount();
+            event.commit();
         }
         delete.clear();
     }
     
+    /**
+     * Returns a hash of the position, size and shape of every asteroid still in the field,
+     * so two runs can be checked for being bit-for-bit the same.
+     * 
+     * @return the checksum
+     */
+    public long checksum() {
+        long hash = 17;
+        for (int a = 0; a < count; a++) {
+            if (alive[a]) {
+                hash = hash * 31 + Double.doubleToLongBits(x[a]);
+                hash = hash * 31 + Double.doubleToLongBits(y[a]);
+                hash = hash * 31 + Double.doubleToLongBits(scale[a]);
+                hash = hash * 31 + Double.doubleToLongBits(rotation[a]);
+                hash = hash * 31 + shape[a];
+            }
+        }
+        return hash;
+    }
+    
     /**
      * Returns the number of asteroids currently on screen.
      * 
      * @return the asteroid count
      */
     public int getAsteroidCount() {
-        return asteroids.size();
+        return count - deadCount;
     }
 }
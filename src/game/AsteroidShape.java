@@ -0,0 +1,310 @@
+package game;
+
+import java.awt.Graphics;
+
+/**
+ * This class holds the geometry of an asteroid relative to its position:
+ * the outline that is drawn and the rotated outline used for collisions.
+ * Asteroids never turn, so this is computed once when an asteroid is created
+ * and can then be shared by the field's flat per-asteroid arrays.
+ */
+public class AsteroidShape {
+    
+    // Tests batches of points a vector at a time when the vector module is available
+    private static ContainsKernel containsKernel = ContainsKernel.load();
+    
+    private final double[] outlineX;
+    private final double[] outlineY;
+    private final double[] hitX;
+    private final double[] hitY;
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+    private final double outlineMinX;
+    private final double outlineMinY;
+    private final double outlineMaxX;
+    private final double outlineMaxY;
+    private final double circleX;
+    private final double circleY;
+    private final double radius;
+    
+    /**
+     * Constructs the geometry for a scaled and rotated asteroid template.
+     * Uses the same math as Polygon, so collisions behave exactly as they
+     * would for a Polygon at the same position and rotation.
+     * 
+     * @param template the points of one of the asteroid templates
+     * @param scale the size multiplier
+     * @param angle the rotation angle in degrees
+     */
+    public AsteroidShape(Point[] template, double scale, double angle) {
+        Point[] outline = Utilities.rotatePoints(Utilities.scalePoints(template, scale), angle);
+        // Polygon moves the points we pass in so the top-left corner is the origin,
+        // which is also how the outline is drawn.
+        Polygon polygon = new Polygon(outline, new Point(0, 0), angle);
+        Point[] points = polygon.getPoints();
+        
+        outlineX = new double[outline.length];
+        outlineY = new double[outline.length];
+        hitX = new double[points.length];
+        hitY = new double[points.length];
+        for (int i = 0; i < outline.length; i++) {
+            outlineX[i] = outline[i].x;
+            outlineY[i] = outline[i].y;
+            hitX[i] = points[i].x;
+            hitY[i] = points[i].y;
+        }
+        double left = outlineX[0];
+        double top = outlineY[0];
+        double right = outlineX[0];
+        double bottom = outlineY[0];
+        for (int i = 1; i < outline.length; i++) {
+            left = Math.min(left, outlineX[i]);
+            top = Math.min(top, outlineY[i]);
+            right = Math.max(right, outlineX[i]);
+            bottom = Math.max(bottom, outlineY[i]);
+        }
+        outlineMinX = left;
+        outlineMinY = top;
+        outlineMaxX = right;
+        outlineMaxY = bottom;
+        circleX = polygon.getBoundsCenterX();
+        circleY = polygon.getBoundsCenterY();
+        double furthest = 0;
+        for (int i = 0; i < points.length; i++) {
+            furthest = Math.max(furthest, Math.hypot(hitX[i] - circleX, hitY[i] - circleY));
+        }
+        radius = furthest;
+        minX = polygon.getMinX();
+        minY = polygon.getMinY();
+        maxX = polygon.getMaxX();
+        maxY = polygon.getMaxY();
+    }
+    
+    /**
+     * Checks whether a point is inside the collision outline of an asteroid at (x, y),
+     * using the same ray-casting test as Polygon.contains.
+     * 
+     * @param x the x-coordinate of the asteroid
+     * @param y the y-coordinate of the asteroid
+     * @param pointX the x-coordinate of the point to test
+     * @param pointY the y-coordinate of the point to test
+     * @return true if the point is inside
+     */
+    public boolean contains(double x, double y, double pointX, double pointY) {
+        if (pointX < minX + x || pointX > maxX + x || pointY < minY + y || pointY > maxY + y) {
+            return false;
+        }
+        int n = hitX.length;
+        double crossingNumber = 0;
+        for (int i = 0, j = 1; i < n; i++, j = (j + 1) % n) {
+            double xi = hitX[i] + x;
+            double yi = hitY[i] + y;
+            double xj = hitX[j] + x;
+            double yj = hitY[j] + y;
+            if ((((xi < pointX) && (pointX <= xj)) ||
+                 ((xj < pointX) && (pointX <= xi))) &&
+                (pointY > yi + (yj - yi) / (xj - xi) * (pointX - xi))) {
+                crossingNumber++;
+            }
+        }
+        return crossingNumber % 2 == 1;
+    }
+    
+    /**
+     * Checks many points against the collision outline of an asteroid at (x, y) at once,
+     * e.g. all of the ship's points. Gives the same answer as contains for every point.
+     * 
+     * @param x the x-coordinate of the asteroid
+     * @param y the y-coordinate of the asteroid
+     * @param pointX the x-coordinates of the points to test
+     * @param pointY the y-coordinates of the points to test
+     * @param count the number of points to test, from index 0
+     * @param inside receives whether each point is inside, or null to only count them
+     * @return how many of the points are inside
+     */
+    public int containsAll(double x, double y, double[] pointX, double[] pointY, int count, boolean[] inside) {
+        return containsKernel.contains(hitX, hitY, minX, minY, maxX, maxY, x, y, pointX, pointY, 0, count, inside);
+    }
+    
+    /**
+     * Returns the kernel batches of points are tested with, e.g. to see whether the vector one was loaded.
+     * 
+     * @return the contains kernel
+     */
+    public static ContainsKernel getContainsKernel() {
+        return containsKernel;
+    }
+    
+    /**
+     * Sweeps a point along a segment and finds where it first touches the collision outline
+     * of an asteroid at (x, y), so fast objects can't pass through an asteroid between ticks.
+     * The segment counts as touching if it crosses an edge or starts or ends inside.
+     * 
+     * @param x the x-coordinate of the asteroid
+     * @param y the y-coordinate of the asteroid
+     * @param startX the x-coordinate the segment starts at
+     * @param startY the y-coordinate the segment starts at
+     * @param endX the x-coordinate the segment ends at
+     * @param endY the y-coordinate the segment ends at
+     * @return how far along the segment the first contact is, from 0 to 1, or -1 if there is none
+     */
+    public double sweep(double x, double y, double startX, double startY, double endX, double endY) {
+        if (Math.max(startX, endX) < minX + x || Math.min(startX, endX) > maxX + x
+                || Math.max(startY, endY) < minY + y || Math.min(startY, endY) > maxY + y) {
+            return -1;
+        }
+        if (contains(x, y, startX, startY)) {
+            return 0;
+        }
+        double segmentX = endX - startX;
+        double segmentY = endY - startY;
+        double first = 2;
+        int n = hitX.length;
+        for (int i = 0, j = 1; i < n; i++, j = (j + 1) % n) {
+            double edgeX = hitX[j] - hitX[i];
+            double edgeY = hitY[j] - hitY[i];
+            double denominator = segmentX * edgeY - segmentY * edgeX;
+            if (denominator == 0) {
+                continue;
+            }
+            // Offset from the segment's start to the edge's start
+            double offsetX = hitX[i] + x - startX;
+            double offsetY = hitY[i] + y - startY;
+            double t = (offsetX * edgeY - offsetY * edgeX) / denominator;
+            double u = (offsetX * segmentY - offsetY * segmentX) / denominator;
+            if (t >= 0 && t <= 1 && u >= 0 && u <= 1 && t < first) {
+                first = t;
+            }
+        }
+        if (first <= 1) {
+            return first;
+        }
+        return contains(x, y, endX, endY) ? 1 : -1;
+    }
+    
+    /**
+     * Draws the outline of an asteroid at (x, y) by connecting its points with lines.
+     * 
+     * @param brush the Graphics object used for drawing
+     * @param x the x-coordinate of the asteroid
+     * @param y the y-coordinate of the asteroid
+     */
+    public void draw(Graphics brush, double x, double y) {
+        int n = outlineX.length;
+        for (int i = 0; i < n; i++) {
+            int j = (i + 1) % n;
+            brush.drawLine(
+                    (int)(outlineX[i] + x),
+                    (int)(outlineY[i] + y),
+                    (int)(outlineX[j] + x),
+                    (int)(outlineY[j] + y));
+        }
+    }
+    
+    /**
+     * Draws the outline at (x, y) straight away unless its bounding box is outside the
+     * view, the same check as the batched draw; the view counts it as drawn or culled.
+     * 
+     * @param brush the Graphics object used for drawing
+     * @param x the x-coordinate of the asteroid
+     * @param y the y-coordinate of the asteroid
+     * @param view the batch whose visible area and counters are used; nothing is added to it
+     */
+    public void draw(Graphics brush, double x, double y, RenderBatch view) {
+        if (view.isVisible(outlineMinX + x, outlineMinY + y, outlineMaxX + x, outlineMaxY + y)) {
+            draw(brush, x, y);
+        }
+    }
+    
+    /**
+     * Adds the outline at (x, y) to a batch instead of drawing it straight away.
+     * Outlines whose bounding box is outside the batch's view are skipped.
+     * 
+     * @param batch the batch collecting this frame's drawing
+     * @param x the x-coordinate of the asteroid
+     * @param y the y-coordinate of the asteroid
+     */
+    public void draw(RenderBatch batch, double x, double y) {
+        if (batch.isVisible(outlineMinX + x, outlineMinY + y, outlineMaxX + x, outlineMaxY + y)) {
+            batch.addOutline(outlineX, outlineY, x, y);
+        }
+    }
+    
+    /**
+     * Returns a copy of the drawn outline relative to the asteroid's position.
+     * 
+     * @return the outline points
+     */
+    public Point[] getOutline() {
+        Point[] outline = new Point[outlineX.length];
+        for (int i = 0; i < outline.length; i++) {
+            outline[i] = new Point(outlineX[i], outlineY[i]);
+        }
+        return outline;
+    }
+    
+    /**
+     * Returns the left edge of the collision outline relative to the asteroid's position.
+     * 
+     * @return the smallest x offset
+     */
+    public double getMinX() {
+        return minX;
+    }
+    
+    /**
+     * Returns the top edge of the collision outline relative to the asteroid's position.
+     * 
+     * @return the smallest y offset
+     */
+    public double getMinY() {
+        return minY;
+    }
+    
+    /**
+     * Returns the right edge of the collision outline relative to the asteroid's position.
+     * 
+     * @return the largest x offset
+     */
+    public double getMaxX() {
+        return maxX;
+    }
+    
+    /**
+     * Returns the bottom edge of the collision outline relative to the asteroid's position.
+     * 
+     * @return the largest y offset
+     */
+    public double getMaxY() {
+        return maxY;
+    }
+    
+    /**
+     * Returns the x offset of the center of the bounding circle of the collision outline.
+     * 
+     * @return the x offset of the circle's center
+     */
+    public double getBoundsCenterX() {
+        return circleX;
+    }
+    
+    /**
+     * Returns the y offset of the center of the bounding circle of the collision outline.
+     * 
+     * @return the y offset of the circle's center
+     */
+    public double getBoundsCenterY() {
+        return circleY;
+    }
+    
+    /**
+     * Returns the radius of the bounding circle of the collision outline.
+     * 
+     * @return the radius
+     */
+    public double getBoundingRadius() {
+        return radius;
+    }
+}
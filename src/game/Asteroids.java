@@ -2,50 +2,58 @@ package game;
 
 import java.awt.*;
 import java.awt.event.*;
-import java.util.ArrayList;
+import java.io.IOException;
 
 /**
- * Main game class for Asteroids. Manages game state, rendering,
- * collision detection, score, lives, and everything else.
- * Extends Game to inherit the game loop and window management.
+ * Main game class for Asteroids. Puts a World on screen, draws the score display,
+ * and turns keyboard input into ship controls.
+ * Extends Game to inherit the fixed-timestep game loop and window management.
  */
 class Asteroids extends Game {
-    public static int frame;
-    public static int width;
-    public static int height;
-    private ArrayList<Explosion> explosions;
-    private AsteroidField asteroidField;
-    private Ship ship;
-    private int score;
-    private boolean gameOver;
-    private int lives;
-
+    private World world;
+    // Controls held down on the keyboard, handed to the ship at the start of each tick
+    private volatile int controls;
+    private InputRecorder recorder;
+    private String recordPath;
+    
     /**
      * Constructor for the Asteroids game.
-     * Initializes the game window, ship, asteroid field, keyboard controls, and other important properties.
+     * Initializes the game window, the world, keyboard controls, and other important properties.
      */
     public Asteroids() {
         super("Asteroids", 800, 600);
-        width = 800;
-        height = 600;
-        frame = 0;
-        score = 0;
-        gameOver = false;
-        lives = 3;
+        Long seed = Long.getLong("game.seed");
+        world = seed != null ? new World(800, 600, seed) : new World(800, 600);
+        recordPath = System.getProperty("game.record");
+        if (recordPath != null) {
+            recorder = new InputRecorder(world);
+        }
         this.setFocusable(true);
         this.requestFocus();
         
-        asteroidField = new AsteroidField(this);
-        ship = new Ship(new Point(width / 2, height / 2));
-        explosions = new ArrayList<Explosion>();
-        
-        this.addKeyListener(ship);
+        // Anonymous class that turns the arrow keys and space bar into ship controls
+        this.addKeyListener(new KeyAdapter() {
+            public void keyPressed(KeyEvent e) {
+                setControl(e.getKeyCode(), true);
+            }
+            
+            public void keyReleased(KeyEvent e) {
+                setControl(e.getKeyCode(), false);
+            }
+        });
         
-        // Anonymous class that handles game level controls(like restart)
+        // Anonymous class that handles game level controls(like restart and the profiler overlay)
         this.addKeyListener(new KeyAdapter() {
             public void keyPressed(KeyEvent e) {
-                if (gameOver && e.getKeyCode() == KeyEvent.VK_R) {
-                    resetGame();
+                if (e.getKeyCode() == KeyEvent.VK_F3) {
+                    Profiler profiler = world.getProfiler();
+                    profiler.setEnabled(!profiler.isEnabled());
+                }
+                if (world.isGameOver() && e.getKeyCode() == KeyEvent.VK_R) {
+                    // Key events arrive on the AWT thread, so wait for the current tick to finish
+                    synchronized (Asteroids.this) {
+                        world.reset();
+                    }
                 }
             }
         });
@@ -58,89 +66,109 @@ class Asteroids extends Game {
      */
     public static void main(String[] args) {
         Asteroids a = new Asteroids();
-        a.repaint();
+        a.start();
     }
     
     /**
-     * Main game loop. Updates and draws all objects.
-     * Handles collisions, score display, etc.
+     * Turns a key press or release into the matching ship control.
      * 
-     * @param brush the Graphics object for drawing
+     * @param keyCode the key that changed
+     * @param pressed true if the key went down, false if it was released
      */
-    public void paint(Graphics brush) {
-        brush.setColor(Color.black);
-        brush.fillRect(0, 0, width, height);
-        frame++;
+    private void setControl(int keyCode, boolean pressed) {
+        int control = 0;
+        if (keyCode == KeyEvent.VK_UP) {
+            control = Ship.FORWARD;
+        } else if (keyCode == KeyEvent.VK_LEFT) {
+            control = Ship.LEFT;
+        } else if (keyCode == KeyEvent.VK_RIGHT) {
+            control = Ship.RIGHT;
+        } else if (keyCode == KeyEvent.VK_SPACE) {
+            control = Ship.SHOOT;
+        }
+        controls = pressed ? controls | control : controls & ~control;
+    }
+    
+    /**
+     * Advances the game by one fixed tick.
+     * The controls are read once per tick, so a recording of them replays exactly.
+     * When recording, the recording is saved as soon as the first game is over.
+     */
+    @Override
+    public void tick() {
+        int input = controls;
+        boolean wasOver = world.isGameOver();
+        if (recorder != null && !wasOver) {
+            recorder.record(input);
+        }
+        world.getShip().setInput(input);
+        world.update();
         
-        if (!gameOver) {
-            ship.update();
-            asteroidField.update();
-            asteroidField.checkBulletCollisions(ship);
-            
-            if (asteroidField.checkShipCollision(ship)) {
-                lives--;
-                newExplosion(ship.position);
-                ship.reset();
-                
-                if (lives <= 0) {
-                    gameOver = true;
-                }
+        if (recorder != null && !wasOver && world.isGameOver()) {
+            try {
+                recorder.save(recordPath);
+            } catch (IOException exc) {
+                System.err.println("Could not save the recording: " + exc.getMessage());
             }
-            
-            ship.draw(brush);
-            asteroidField.draw(brush);
+            recorder = null;
         }
+    }
+    
+    /**
+     * Draws all objects, the score display, etc.
+     * 
+     * @param brush the Graphics object for drawing
+     * @param alpha how far between the last tick and the next one, from 0 to 1
+     */
+    @Override
+    public void render(Graphics brush, double alpha) {
+        brush.setColor(Color.black);
+        brush.fillRect(0, 0, width, height);
         
-        explosionUpdates(brush);
+        Profiler profiler = world.getProfiler();
+        long start = profiler.begin();
+        PaintEvent event = new PaintEvent();
+        event.begin();
+        world.draw(brush, alpha);
+        commitPaint(event, "world", alpha);
+        profiler.end(Profiler.DRAWING, start);
+        profiler.frame();
         
+        event = new PaintEvent();
+        event.begin();
         brush.setColor(Color.white);
-        brush.drawString("Score: " + score, 10, 20);
-        brush.drawString("Lives: " + lives, 10, 40);
-        brush.drawString("Asteroids: " + asteroidField.getAsteroidCount(), 10, 60);
+        brush.drawString("Score: " + world.getScore(), 10, 20);
+        brush.drawString("Lives: " + world.getLives(), 10, 40);
+        brush.drawString("Asteroids: " + world.getAsteroidCount(), 10, 60);
         
-        if (gameOver) {
+        if (world.isGameOver()) {
             brush.drawString("GAME OVER", width / 2 - 150, height / 2);
             brush.drawString("Press R to Restart", width / 2 - 120, height / 2 + 50);
         }
-    }
-    
-    /**
-     * Updates and removes expired explosions using lambda functions.
-     * 
-     * @param brush the Graphics object for drawing
-     */
-    private void explosionUpdates(Graphics brush) {
-        // Lambda expression that uses removeIf to filter expired explosions
-        explosions.removeIf(e -> e.getDeathFrame() < frame);
         
-        for (Explosion e : explosions) {
-            e.update();
-            e.draw(brush);
+        if (profiler.isEnabled()) {
+            profiler.draw(brush, world);
         }
+        commitPaint(event, "hud", alpha);
     }
     
     /**
-     * Creates a new explosion at the specified position when asteroid gets hit and also,
-     * increases the players score by 10 points.
+     * Ends a paint phase and records it for Flight Recorder if the event is enabled.
      * 
-     * @param p the position where the explosion occurs
+     * @param event the event begun at the start of the phase
+     * @param phase the name of the phase
+     * @param alpha how far between the last tick and the next one the frame was drawn
      */
-    public void newExplosion(Point p) {
-        Explosion e = new Explosion((int)p.getX(), (int)p.getY());
-        explosions.add(e);
-        score += 10;
-    }
-    
-    /**
-     * Resets the game.
-     * And its other aspects like lives, score, etc.
-     */
-    private void resetGame() {
-        gameOver = false;
-        lives = 3;
-        score = 0;
-        ship.reset();
-        asteroidField = new AsteroidField(this);
-        explosions.clear();
+    private void commitPaint(PaintEvent event, String phase, double alpha) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.frame = world.getFrame();
+            event.phase = phase;
+            event.asteroids = world.getAsteroidCount();
+            event.alpha = alpha;
+            event.drawn = world.getRenderBatch().getDrawnCount();
+            event.culled = world.getRenderBatch().getCulledCount();
+            event.commit();
+        }
     }
 }
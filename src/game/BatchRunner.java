@@ -0,0 +1,278 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class plays many independent headless games at once, e.g. to evaluate a bot over
+ * thousands of seeds. Each game gets its own World and runs start to finish on one thread
+ * of a fixed-size pool, so throughput grows with the number of cores.
+ * Game i is played with seed firstSeed + i, so a batch gives the same results
+ * however many threads it runs on.
+ */
+public class BatchRunner {
+    
+    private final int threads;
+    private final int maxTicks;
+    
+    /**
+     * Constructs a new BatchRunner.
+     * 
+     * @param threads the number of games played at the same time
+     * @param maxTicks the most ticks a game is played for if it isn't over before then
+     */
+    public BatchRunner(int threads, int maxTicks) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1, got " + threads);
+        }
+        this.threads = threads;
+        this.maxTicks = maxTicks;
+    }
+    
+    /**
+     * Plays a batch of games and waits for all of them to finish.
+     * 
+     * @param firstSeed the seed of the first game
+     * @param games the number of games to play
+     * @param script the ship's controls, shared by every game so it must not keep state
+     * @return the combined results of the batch
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public Result run(long firstSeed, int games, InputScript script) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "Batch game");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            long start = System.nanoTime();
+            List<Future<GameSummary>> futures = new ArrayList<Future<GameSummary>>(games);
+            for (int i = 0; i < games; i++) {
+                long seed = firstSeed + i;
+                futures.add(executor.submit(() -> play(seed, script)));
+            }
+            Result result = new Result();
+            for (Future<GameSummary> future : futures) {
+                result.add(future.get());
+            }
+            result.seconds = (System.nanoTime() - start) / 1e9;
+            return result;
+        } catch (ExecutionException exc) {
+            throw new IllegalStateException("A game failed", exc.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    /**
+     * Plays one game until it is over or the tick limit is reached.
+     * Only a summary is returned, so the world can be collected as soon as the game ends
+     * instead of staying alive until the whole batch is done.
+     * 
+     * @param seed the seed of the game
+     * @param script the ship's controls
+     * @return the summary of the game
+     */
+    private GameSummary play(long seed, InputScript script) {
+        World world = new World(800, 600, seed);
+        new HeadlessSimulation(world, script).run(maxTicks);
+        return new GameSummary(world);
+    }
+    
+    /**
+     * Inner class for the few numbers the results need from one finished game.
+     */
+    private static final class GameSummary {
+        
+        private final int score;
+        private final int frame;
+        private final boolean gameOver;
+        private final long checksum;
+        private final long shapeHits;
+        private final long shapeMisses;
+        
+        /**
+         * Constructs a new GameSummary of a finished game.
+         * 
+         * @param world the world the game was played in
+         */
+        private GameSummary(World world) {
+            this.score = world.getScore();
+            this.frame = world.getFrame();
+            this.gameOver = world.isGameOver();
+            this.checksum = world.checksum();
+            this.shapeHits = world.getShapeCache().getHits();
+            this.shapeMisses = world.getShapeCache().getMisses();
+        }
+    }
+    
+    /**
+     * Inner class for the combined results of a batch of games.
+     */
+    public static class Result {
+        
+        private int games;
+        private int gamesOver;
+        private long totalScore;
+        private int minScore = Integer.MAX_VALUE;
+        private int maxScore = Integer.MIN_VALUE;
+        private long totalTicks;
+        private long checksum;
+        private long shapeHits;
+        private long shapeMisses;
+        private double seconds;
+        
+        /**
+         * Adds one finished game to the results.
+         * 
+         * @param game the summary of the game
+         */
+        private void add(GameSummary game) {
+            games++;
+            if (game.gameOver) {
+                gamesOver++;
+            }
+            totalScore += game.score;
+            minScore = Math.min(minScore, game.score);
+            maxScore = Math.max(maxScore, game.score);
+            totalTicks += game.frame;
+            checksum = checksum * 31 + game.checksum;
+            shapeHits += game.shapeHits;
+            shapeMisses += game.shapeMisses;
+        }
+        
+        /**
+         * Returns the number of games played.
+         * 
+         * @return the game count
+         */
+        public int getGames() {
+            return games;
+        }
+        
+        /**
+         * Returns how many games ended with the ship out of lives, rather than at the tick limit.
+         * 
+         * @return the number of games that were over
+         */
+        public int getGamesOver() {
+            return gamesOver;
+        }
+        
+        /**
+         * Returns the average score of the games.
+         * 
+         * @return the mean score
+         */
+        public double getMeanScore() {
+            return games > 0 ? (double)totalScore / games : 0;
+        }
+        
+        /**
+         * Returns the lowest score of any game.
+         * 
+         * @return the lowest score
+         */
+        public int getMinScore() {
+            return minScore;
+        }
+        
+        /**
+         * Returns the highest score of any game.
+         * 
+         * @return the highest score
+         */
+        public int getMaxScore() {
+            return maxScore;
+        }
+        
+        /**
+         * Returns how many ticks the games lasted on average.
+         * 
+         * @return the mean lifetime in ticks
+         */
+        public double getMeanLifetime() {
+            return games > 0 ? (double)totalTicks / games : 0;
+        }
+        
+        /**
+         * Returns the ticks run by all games together per second of wall-clock time.
+         * 
+         * @return the combined tick rate
+         */
+        public double getTicksPerSecond() {
+            return seconds > 0 ? totalTicks / seconds : 0;
+        }
+        
+        /**
+         * Returns how long the batch took.
+         * 
+         * @return the wall-clock time in seconds
+         */
+        public double getSeconds() {
+            return seconds;
+        }
+        
+        /**
+         * Returns how many shape lookups found a cached shape, over every game's own cache.
+         * 
+         * @return the number of hits
+         */
+        public long getShapeCacheHits() {
+            return shapeHits;
+        }
+        
+        /**
+         * Returns how many shape lookups had to build a new shape, over every game's own cache.
+         * 
+         * @return the number of misses
+         */
+        public long getShapeCacheMisses() {
+            return shapeMisses;
+        }
+        
+        /**
+         * Returns a hash of every game's checksum in seed order.
+         * Two batches with the same checksum played out the same.
+         * 
+         * @return the checksum
+         */
+        public long getChecksum() {
+            return checksum;
+        }
+    }
+    
+    /**
+     * Plays a batch of games with a spinning, shooting ship and prints the combined results.
+     * The game.seed system property sets the seed of the first game (default 0).
+     * 
+     * @param args optionally the number of games (default 1000), the tick limit per game
+     *             (default 10000) and the number of threads (default one per processor)
+     * @throws InterruptedException if the main thread is interrupted while waiting
+     */
+    public static void main(String[] args) throws InterruptedException {
+        System.setProperty("java.awt.headless", "true");
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int maxTicks = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long firstSeed = Long.getLong("game.seed", 0);
+        
+        Result result = new BatchRunner(threads, maxTicks).run(firstSeed, games, InputScript.SPIN_AND_SHOOT);
+        
+        System.out.println("Games: " + result.getGames() + " (" + result.getGamesOver() + " over)");
+        System.out.println("Threads: " + threads);
+        System.out.printf("Score: mean %.1f, min %d, max %d%n", result.getMeanScore(),
+                result.getMinScore(), result.getMaxScore());
+        System.out.printf("Lifetime: mean %.0f ticks%n", result.getMeanLifetime());
+        System.out.printf("Seconds: %.2f%n", result.getSeconds());
+        System.out.println("Ticks/sec: " + (int)result.getTicksPerSecond());
+        System.out.println("Checksum: " + Long.toHexString(result.getChecksum()));
+        long lookups = result.getShapeCacheHits() + result.getShapeCacheMisses();
+        System.out.println("Shape cache hits/misses: " + result.getShapeCacheHits() + "/" + result.getShapeCacheMisses()
+                + " (" + (lookups > 0 ? (int)(result.getShapeCacheHits() * 100 / lookups) : 0) + "% hit rate)");
+    }
+}
@@ -10,8 +10,12 @@ import java.awt.Graphics;
 public class Bullet implements Updatable, Drawable {
     
     private Point position;
+    private double previousX;
+    private double previousY;
     private double angle;
     private double velocity;
+    private double dx;
+    private double dy;
     private int lifespan;
     private static final int MAX_LIFESPAN = 60;
     
@@ -24,18 +28,38 @@ public class Bullet implements Updatable, Drawable {
      */
     public Bullet(Point startPosition, double angle, double velocity) {
         this.position = startPosition.clone();
+        reset(startPosition.getX(), startPosition.getY(), angle, velocity);
+    }
+    
+    /**
+     * Fires this bullet again from a new position, so it can be reused from a pool.
+     * 
+     * @param x the x-coordinate to start from
+     * @param y the y-coordinate to start from
+     * @param angle the direction of travel in degrees
+     * @param velocity the speed in pixels per frame
+     */
+    public void reset(double x, double y, double angle, double velocity) {
+        this.position.setX(x);
+        this.position.setY(y);
+        this.previousX = x;
+        this.previousY = y;
         this.angle = angle;
         this.velocity = velocity;
+        this.dx = Utilities.directionX(angle, velocity);
+        this.dy = Utilities.directionY(angle, velocity);
         this.lifespan = 0;
     }
     
     /**
      * Updates the bullet's position each frame.
-     * Moves the bullet and increments its lifespan.
+     * Moves the bullet in place and increments its lifespan.
      */
     @Override
     public void update() {
-        position = Utilities.updatePosition(position, angle, velocity);
+        previousX = position.getX();
+        previousY = position.getY();
+        Utilities.movePoint(position, dx, dy);
         lifespan++;
     }
     
@@ -46,8 +70,53 @@ public class Bullet implements Updatable, Drawable {
      */
     @Override
     public void draw(Graphics brush) {
+        draw(brush, 1);
+    }
+    
+    /**
+     * Draws the bullet between its previous and current position.
+     * 
+     * @param brush the Graphics object used for drawing
+     * @param alpha how far between the last tick and the next one
+     */
+    @Override
+    public void draw(Graphics brush, double alpha) {
+        double x = previousX + (position.getX() - previousX) * alpha;
+        double y = previousY + (position.getY() - previousY) * alpha;
         brush.setColor(Color.white);
-        brush.fillOval((int)position.getX() - 2, (int)position.getY() - 2, 4, 4);
+        brush.fillOval((int)x - 2, (int)y - 2, 4, 4);
+    }
+    
+    /**
+     * Adds the bullet between its previous and current position to a batch.
+     * 
+     * @param batch the batch collecting this frame's drawing
+     * @param alpha how far between the last tick and the next one
+     */
+    public void draw(RenderBatch batch, double alpha) {
+        double x = previousX + (position.getX() - previousX) * alpha;
+        double y = previousY + (position.getY() - previousY) * alpha;
+        if (batch.isVisible(x - 2, y - 2, x + 2, y + 2)) {
+            batch.addOval((int)x - 2, (int)y - 2, 4, 4);
+        }
+    }
+    
+    /**
+     * Returns the x-coordinate the bullet had before its last update.
+     * 
+     * @return the previous x-coordinate
+     */
+    public double getPreviousX() {
+        return previousX;
+    }
+    
+    /**
+     * Returns the y-coordinate the bullet had before its last update.
+     * 
+     * @return the previous y-coordinate
+     */
+    public double getPreviousY() {
+        return previousY;
     }
     
     /**
@@ -0,0 +1,30 @@
+package game;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for splitting the asteroids hit during one collision pass.
+ */
+@Name("game.AsteroidCleanup")
+@Label("Asteroid Cleanup")
+@Category("Asteroids")
+@Description("Splitting the asteroids that were hit during a collision check")
+@StackTrace(false)
+class CleanupEvent extends jdk.jfr.Event {
+    
+    @Label("Frame")
+    int frame;
+    
+    @Label("Asteroids Hit")
+    int hit;
+    
+    @Label("Asteroids Before")
+    int before;
+    
+    @Label("Asteroids After")
+    int after;
+}
@@ -0,0 +1,51 @@
+package game;
+
+/**
+ * This interface tests many points against one polygon at once, with the same ray-casting
+ * rule as AsteroidShape.contains, e.g. all of the ship's points against an asteroid or a
+ * whole field of bullets or particles against one asteroid.
+ * The scalar version is ScalarContainsKernel. A SIMD version built on the incubating
+ * Vector API lives in the vector module and is picked up by load() like the motion kernel.
+ * Every kernel must give exactly the same answers as AsteroidShape.contains.
+ */
+public interface ContainsKernel {
+    
+    /**
+     * Tests a range of points against a polygon placed at (x, y).
+     * 
+     * @param edgeX the x-coordinates of the polygon's points, relative to (x, y)
+     * @param edgeY the y-coordinates of the polygon's points, relative to (x, y)
+     * @param minX the left edge of the polygon's bounding box, relative to (x, y)
+     * @param minY the top edge of the polygon's bounding box, relative to (x, y)
+     * @param maxX the right edge of the polygon's bounding box, relative to (x, y)
+     * @param maxY the bottom edge of the polygon's bounding box, relative to (x, y)
+     * @param x the x-coordinate the polygon is placed at
+     * @param y the y-coordinate the polygon is placed at
+     * @param pointX the x-coordinates of the points to test
+     * @param pointY the y-coordinates of the points to test
+     * @param from the index of the first point to test
+     * @param to one past the index of the last point to test
+     * @param inside receives whether each point is inside, or null to only count them
+     * @return how many of the points are inside
+     */
+    int contains(double[] edgeX, double[] edgeY, double minX, double minY, double maxX, double maxY,
+            double x, double y, double[] pointX, double[] pointY, int from, int to, boolean[] inside);
+    
+    /**
+     * Returns the fastest kernel this JVM can run. The vector kernel is used unless the
+     * game.vectorContains system property is false or it can't be loaded.
+     * 
+     * @return the contains kernel
+     */
+    static ContainsKernel load() {
+        if ("false".equals(System.getProperty("game.vectorContains"))) {
+            return new ScalarContainsKernel();
+        }
+        try {
+            return (ContainsKernel)Class.forName("game.VectorContainsKernel").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError exc) {
+            // Not on the class path, or jdk.incubator.vector wasn't added to the JVM
+            return new ScalarContainsKernel();
+        }
+    }
+}
@@ -16,4 +16,15 @@ public interface Drawable {
      */
     void draw(Graphics brush);
     
+    /**
+     * Draws the object partway between its previous and current position.
+     * Objects that don't track their previous position just draw normally.
+     * 
+     * @param brush the Graphics object used for drawing
+     * @param alpha how far between the last tick and the next one, from 0 to 1
+     */
+    default void draw(Graphics brush, double alpha) {
+        draw(brush);
+    }
+    
 }
@@ -0,0 +1,27 @@
+package game;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for an explosion being started.
+ */
+@Name("game.Explosion")
+@Label("Explosion")
+@Category("Asteroids")
+@Description("An explosion started at an asteroid or the ship")
+@StackTrace(false)
+class ExplosionEvent extends jdk.jfr.Event {
+    
+    @Label("Frame")
+    int frame;
+    
+    @Label("Particles")
+    int particles;
+    
+    @Label("Score")
+    int score;
+}
@@ -0,0 +1,78 @@
+package game;
+
+/**
+ * This class looks up the sine and cosine of angles in degrees from precomputed tables.
+ * Most angles in the game are whole degrees (spawn headings, the ship's 5 degree turns,
+ * explosion particle directions), so they are found in the table instead of computed.
+ * The table holds game.trigResolution entries per degree (default 1); any angle that
+ * doesn't land exactly on an entry falls back to Math, so fractional angles stay exact.
+ * Table entries are computed with the same Math expression as the fallback, so angles
+ * from 0 up to 360 give exactly the same result either way. Angles outside that range
+ * are wrapped first, which can change the last bit. Start with -Dgame.fastTrig=false
+ * to always use Math.
+ */
+public class FastTrig {
+    
+    private static final int RESOLUTION = Math.max(1, Integer.getInteger("game.trigResolution", 1));
+    private static final boolean ENABLED = !"false".equals(System.getProperty("game.fastTrig"));
+    private static final int STEPS = 360 * RESOLUTION;
+    private static final double[] SIN = new double[STEPS];
+    private static final double[] COS = new double[STEPS];
+    
+    static {
+        for (int i = 0; i < STEPS; i++) {
+            double degrees = (double)i / RESOLUTION;
+            SIN[i] = Math.sin(Math.toRadians(degrees));
+            COS[i] = Math.cos(Math.toRadians(degrees));
+        }
+    }
+    
+    /**
+     * Returns the sine of an angle.
+     * 
+     * @param degrees the angle in degrees
+     * @return the sine of the angle
+     */
+    public static double sin(double degrees) {
+        int index = tableIndex(degrees);
+        return index >= 0 ? SIN[index] : Math.sin(Math.toRadians(degrees));
+    }
+    
+    /**
+     * Returns the cosine of an angle.
+     * 
+     * @param degrees the angle in degrees
+     * @return the cosine of the angle
+     */
+    public static double cos(double degrees) {
+        int index = tableIndex(degrees);
+        return index >= 0 ? COS[index] : Math.cos(Math.toRadians(degrees));
+    }
+    
+    /**
+     * Returns the number of table entries per degree.
+     * 
+     * @return the table resolution
+     */
+    public static int getResolution() {
+        return RESOLUTION;
+    }
+    
+    /**
+     * Finds the table entry for an angle, if the angle lands exactly on one.
+     * 
+     * @param degrees the angle in degrees
+     * @return the index into the tables, or -1 if the angle has to be computed
+     */
+    private static int tableIndex(double degrees) {
+        if (!ENABLED) {
+            return -1;
+        }
+        double steps = degrees * RESOLUTION;
+        long step = (long)steps;
+        if (step != steps || step == Long.MIN_VALUE || step == Long.MAX_VALUE) {
+            return -1;
+        }
+        return Math.floorMod(step, STEPS);
+    }
+}
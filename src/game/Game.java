@@ -2,61 +2,178 @@ package game;
 
 /*
 CLASS: Game
-DESCRIPTION: A painted canvas in its own window, updated every tenth second.
-USAGE: Extended by YourGameName.
+DESCRIPTION: A painted canvas in its own window. A dedicated game-loop thread
+             advances the simulation at a fixed tick rate and draws a frame
+             at its own frame rate.
+USAGE: Extended by YourGameName. By default frames are drawn actively into a
+       page-flipped BufferStrategy; start with -Dgame.rendering=passive to use
+       the old repaint()/update() path with an image back buffer instead.
 NOTE: You don't need to understand the details here, no fiddling neccessary.*/
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.image.BufferStrategy;
 
 abstract class Game extends Canvas {
-  protected boolean on = true;
+  protected static final int TICKS_PER_SECOND = 60;
+  protected static final int FRAMES_PER_SECOND = 120;
+  private static final long TICK_NANOS = 1000000000L / TICKS_PER_SECOND;
+  private static final long FRAME_NANOS = 1000000000L / FRAMES_PER_SECOND;
+  // At most this many ticks are run back to back before the loop gives up on
+  // catching up, so a long stall doesn't turn into a burst of ticks.
+  private static final int MAX_TICKS_PER_FRAME = 5;
+  private static final int BUFFER_COUNT = 2;
+
+  protected volatile boolean on = true;
   protected int width, height;
   protected Image buffer;
-  
+  private BufferStrategy strategy;
+  private Thread loop;
+  private volatile long lastTickTime;
+
 	public Game(String name, int inWidth, int inHeight) {
 	  width = inWidth;
 	  height = inHeight;
-	  
+
 	  // Frame can be read as 'window' here.
     Frame frame = new Frame(name);
     frame.add(this);
     frame.setSize(width,height);
     frame.setVisible(true);
     frame.setResizable(false);
-    frame.addWindowListener(new WindowAdapter() { 
-      public void windowClosing(WindowEvent e) {System.exit(0);} 
+    frame.addWindowListener(new WindowAdapter() {
+      public void windowClosing(WindowEvent e) {System.exit(0);}
     });
-    
+
     buffer = createImage(width, height);
 	}
-  
-  // 'paint' will be called every tenth of a second that the game is on.
-	abstract public void paint(Graphics brush);
-  
-  // 'update' paints to a buffer then to the screen, then waits a tenth of
-  // a second before repeating itself, assuming the game is on. This is done
-  // to avoid a choppy painting experience if repainted in pieces.
+
+  // 'tick' advances the simulation by one fixed step. It runs on the game-loop
+  // thread while holding the lock on this object.
+  abstract public void tick();
+
+  // 'render' draws the current state. 'alpha' is how far (0 to 1) we are
+  // between the last tick and the next one, for interpolating motion.
+  abstract public void render(Graphics brush, double alpha);
+
+  // 'paint' draws a frame whenever AWT asks for one, holding the same lock as
+  // 'tick' so a frame never shows a half-updated simulation.
+  public void paint(Graphics brush) {
+    double alpha = (System.nanoTime() - lastTickTime) / (double)TICK_NANOS;
+    synchronized (this) {
+      render(brush, Math.min(1, Math.max(0, alpha)));
+    }
+  }
+
+  // 'update' paints to a buffer then to the screen. This is done to avoid a
+  // choppy painting experience if repainted in pieces.
   public void update(Graphics brush) {
     paint(buffer.getGraphics());
 		brush.drawImage(buffer,0,0,this);
-    if (on) {sleep(10); repaint();}
   }
-  
-  // 'sleep' is a simple helper function used in 'update'.
-  private void sleep(int time) {
-    try {Thread.sleep(time);} catch(Exception exc){};
+
+  // 'start' sets up rendering and launches the game-loop thread.
+  public void start() {
+    if (!"passive".equals(System.getProperty("game.rendering", "active"))) {
+      strategy = createStrategy();
+    }
+    if (strategy != null) {
+      // Frames are drawn by the loop, so AWT's own repaints are not needed.
+      setIgnoreRepaint(true);
+    }
+    loop = new Thread(this::run, "Game loop");
+    loop.setDaemon(true);
+    loop.start();
+  }
+
+  // 'createStrategy' asks for accelerated (VolatileImage) page-flipped
+  // buffers, then for whatever the platform offers, and returns null if the
+  // canvas can't have a BufferStrategy at all so we fall back to repaint().
+  private BufferStrategy createStrategy() {
+    try {
+      try {
+        createBufferStrategy(BUFFER_COUNT, new BufferCapabilities(
+            new ImageCapabilities(true), new ImageCapabilities(true),
+            BufferCapabilities.FlipContents.UNDEFINED));
+      } catch (AWTException exc) {
+        createBufferStrategy(BUFFER_COUNT);
+      }
+      return getBufferStrategy();
+    } catch (RuntimeException exc) {
+      return null;
+    }
+  }
+
+  // 'renderActive' draws a frame straight into the BufferStrategy and flips
+  // it. Accelerated surfaces can be lost (e.g. on a display mode change), in
+  // which case the frame is simply drawn again.
+  private void renderActive() {
+    do {
+      do {
+        Graphics brush = strategy.getDrawGraphics();
+        try {
+          paint(brush);
+        } finally {
+          brush.dispose();
+        }
+      } while (strategy.contentsRestored());
+      strategy.show();
+    } while (strategy.contentsLost());
+    Toolkit.getDefaultToolkit().sync();
   }
-  
+
+  // 'run' is the game loop. Elapsed time is added to an accumulator and the
+  // simulation is ticked once for every full tick interval in it, so the
+  // simulation speed stays the same however slow or fast painting is. Once
+  // per frame interval a frame is either drawn directly or, in passive mode,
+  // requested with repaint(), which AWT may coalesce without holding back
+  // the ticks.
+  private void run() {
+    long previous = System.nanoTime();
+    long accumulator = 0;
+    lastTickTime = previous;
+    while (on) {
+      long now = System.nanoTime();
+      accumulator += now - previous;
+      previous = now;
+
+      int ticks = 0;
+      while (accumulator >= TICK_NANOS && ticks < MAX_TICKS_PER_FRAME) {
+        synchronized (this) {
+          tick();
+        }
+        accumulator -= TICK_NANOS;
+        lastTickTime = now - accumulator;
+        ticks++;
+      }
+      if (ticks == MAX_TICKS_PER_FRAME) {
+        accumulator = 0;
+      }
+
+      if (strategy != null) {
+        renderActive();
+      } else {
+        repaint();
+      }
+      sleep(FRAME_NANOS - (System.nanoTime() - now));
+    }
+  }
+
+  // 'sleep' is a simple helper function used in 'run'.
+  private void sleep(long nanos) {
+    if (nanos <= 0) return;
+    try {Thread.sleep(nanos / 1000000, (int)(nanos % 1000000));} catch(Exception exc){};
+  }
+
   /**
    * Returns the width of the game.
-   * 
+   *
    * @return the width in pixels
    */
   public int getWidth() {return width;}
-  
+
   /**
    * Returns the height of the game.
-   * 
+   *
    * @return the height in pixels
    */
   public int getHeight() {return height;}
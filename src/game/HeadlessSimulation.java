@@ -0,0 +1,117 @@
+package game;
+
+import java.io.IOException;
+
+/**
+ * This class runs a World without a window, keyboard or AWT thread.
+ * Ship controls come from an InputScript and the world is ticked as fast as the CPU allows,
+ * either for a given number of ticks or until the game is over.
+ * The controls can be recorded with an InputRecorder, and a recorded game can be replayed
+ * by running its InputLog against the world it creates.
+ */
+public class HeadlessSimulation {
+    
+    private World world;
+    private InputScript script;
+    private InputRecorder recorder;
+    
+    /**
+     * Constructs a new HeadlessSimulation.
+     * 
+     * @param world the world to simulate
+     * @param script the source of the ship's controls for each tick
+     */
+    public HeadlessSimulation(World world, InputScript script) {
+        this.world = world;
+        this.script = script;
+    }
+    
+    /**
+     * Ticks the world until the frame limit is reached or the game is over.
+     * 
+     * @param maxFrames the most ticks to run
+     * @return the number of ticks that were run
+     */
+    public int run(int maxFrames) {
+        int ticks = 0;
+        while (ticks < maxFrames && !world.isGameOver()) {
+            int input = script.inputFor(world.getFrame() + 1);
+            if (recorder != null) {
+                recorder.record(input);
+            }
+            world.getShip().setInput(input);
+            world.update();
+            ticks++;
+        }
+        return ticks;
+    }
+    
+    /**
+     * Records the controls of every tick run from now on.
+     * 
+     * @param recorder the recorder to write the controls to, or null to stop recording
+     */
+    public void setRecorder(InputRecorder recorder) {
+        this.recorder = recorder;
+    }
+    
+    /**
+     * Runs a headless game with a spinning, shooting ship and prints how it went.
+     * The game.seed system property fixes the seed, game.record names a file to record the
+     * controls to, and game.replay names a recorded game to replay instead.
+     * 
+     * @param args optionally the number of ticks to run (default 10000, or the whole replay)
+     * @throws IOException if the recording can't be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        String replay = System.getProperty("game.replay");
+        String record = System.getProperty("game.record");
+        
+        World world;
+        HeadlessSimulation simulation;
+        if (replay != null) {
+            InputLog log = InputLog.load(replay);
+            world = log.createWorld();
+            simulation = new HeadlessSimulation(world, log);
+            frames = args.length > 0 ? frames : log.getTickCount();
+        } else {
+            Long seed = Long.getLong("game.seed");
+            world = seed != null ? new World(800, 600, seed) : new World(800, 600);
+            simulation = new HeadlessSimulation(world, InputScript.SPIN_AND_SHOOT);
+        }
+        InputRecorder recorder = record != null ? new InputRecorder(world) : null;
+        simulation.setRecorder(recorder);
+        
+        long start = System.nanoTime();
+        int ticks = simulation.run(frames);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (recorder != null) {
+            recorder.save(record);
+        }
+        
+        System.out.println("Seed: " + world.getSeed());
+        System.out.println("Ticks: " + ticks);
+        System.out.println("Ticks/sec: " + (int)(ticks / seconds));
+        System.out.println("Score: " + world.getScore());
+        System.out.println("Lives: " + world.getLives());
+        System.out.println("Asteroids: " + world.getAsteroidCount());
+        System.out.println("Checksum: " + Long.toHexString(world.checksum()));
+        Pool<Bullet> bullets = world.getShip().getBulletPool();
+        ParticleSystem particles = world.getParticles();
+        System.out.println("Bullet pool hits/misses: " + bullets.getHits() + "/" + bullets.getMisses());
+        System.out.println("Particles: " + particles.getParticleCount() + " live, room for " + particles.getCapacity());
+        ShapeCache shapes = world.getShapeCache();
+        System.out.println("Shape cache hits/misses: " + shapes.getHits() + "/" + shapes.getMisses()
+                + " (" + (int)(shapes.getHitRate() * 100) + "% hit rate, " + shapes.size() + " shapes)");
+        Profiler profiler = world.getProfiler();
+        if (profiler.isEnabled()) {
+            for (int phase = 0; phase < Profiler.PHASE_COUNT; phase++) {
+                System.out.printf("%-10s p50 %.3f ms, p99 %.3f ms%n", Profiler.getPhaseName(phase),
+                        profiler.percentile(phase, 50) / 1e6, profiler.percentile(phase, 99) / 1e6);
+            }
+            System.out.printf("Allocation rate: %.1f MB/s%n", profiler.getAllocationRate() / (1024 * 1024));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package game;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/**
+ * This class is a game recorded by an InputRecorder, loaded back so it can be replayed.
+ * It hands out the recorded controls tick by tick, so a HeadlessSimulation running a world
+ * made by createWorld() plays the game out exactly as it was recorded.
+ */
+public class InputLog implements InputScript {
+    
+    private final long seed;
+    private final int width;
+    private final int height;
+    private final int ticks;
+    private final byte[] inputs;
+    
+    /**
+     * Constructs a new InputLog from the parts of a recording.
+     * 
+     * @param seed the seed of the recorded world
+     * @param width the width of the recorded world
+     * @param height the height of the recorded world
+     * @param ticks the number of ticks recorded
+     * @param inputs the controls for each tick, packed two ticks to a byte
+     */
+    private InputLog(long seed, int width, int height, int ticks, byte[] inputs) {
+        this.seed = seed;
+        this.width = width;
+        this.height = height;
+        this.ticks = ticks;
+        this.inputs = inputs;
+    }
+    
+    /**
+     * Reads a recording written by InputRecorder.save().
+     * 
+     * @param path the file to read
+     * @return the loaded recording
+     * @throws IOException if the file can't be read or is not an input log
+     */
+    public static InputLog load(String path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path)))) {
+            if (in.readInt() != InputRecorder.MAGIC) {
+                throw new IOException(path + " is not an input log");
+            }
+            int version = in.readUnsignedByte();
+            if (version != InputRecorder.VERSION) {
+                throw new IOException(path + " has unsupported input log version " + version);
+            }
+            long seed = in.readLong();
+            int width = in.readInt();
+            int height = in.readInt();
+            int ticks = in.readInt();
+            byte[] inputs = new byte[(ticks + 1) / 2];
+            in.readFully(inputs);
+            return new InputLog(seed, width, height, ticks, inputs);
+        }
+    }
+    
+    /**
+     * Creates a world like the one that was recorded, ready to be replayed.
+     * 
+     * @return a new world with the recorded size and seed
+     */
+    public World createWorld() {
+        return new World(width, height, seed);
+    }
+    
+    /**
+     * Returns the recorded controls for a tick, or no controls past the end of the recording.
+     * 
+     * @param frame the number of the tick about to run, starting at 1
+     * @return any combination of Ship.FORWARD, Ship.LEFT, Ship.RIGHT and Ship.SHOOT
+     */
+    @Override
+    public int inputFor(int frame) {
+        int tick = frame - 1;
+        if (tick < 0 || tick >= ticks) {
+            return 0;
+        }
+        return (inputs[tick / 2] >> ((tick % 2) * 4)) & InputRecorder.INPUT_MASK;
+    }
+    
+    /**
+     * Returns the seed of the recorded world.
+     * 
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+    
+    /**
+     * Returns how many ticks were recorded.
+     * 
+     * @return the tick count
+     */
+    public int getTickCount() {
+        return ticks;
+    }
+}
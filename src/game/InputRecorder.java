@@ -0,0 +1,82 @@
+package game;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * This class records the ship's controls for every tick of a game so the game can be replayed
+ * later with an InputLog. Each tick takes four bits (the Ship.FORWARD, LEFT, RIGHT and SHOOT flags),
+ * packed two ticks to a byte, behind a small header with the world's seed and size.
+ * Together with the seed this is everything needed to play the game out again exactly.
+ */
+public class InputRecorder {
+    
+    // "ASTR" in ASCII, marks the start of an input log
+    static final int MAGIC = 0x41535452;
+    static final int VERSION = 1;
+    static final int INPUT_MASK = Ship.FORWARD | Ship.LEFT | Ship.RIGHT | Ship.SHOOT;
+    
+    private final long seed;
+    private final int width;
+    private final int height;
+    private byte[] inputs;
+    private int ticks;
+    
+    /**
+     * Constructs a new empty recorder for a game played in the given world.
+     * 
+     * @param world the world being recorded, before its first tick
+     */
+    public InputRecorder(World world) {
+        this.seed = world.getSeed();
+        this.width = world.getWidth();
+        this.height = world.getHeight();
+        this.inputs = new byte[1024];
+        this.ticks = 0;
+    }
+    
+    /**
+     * Records the controls held down during the next tick.
+     * 
+     * @param input any combination of Ship.FORWARD, Ship.LEFT, Ship.RIGHT and Ship.SHOOT
+     */
+    public void record(int input) {
+        int index = ticks / 2;
+        if (index == inputs.length) {
+            inputs = Arrays.copyOf(inputs, inputs.length * 2);
+        }
+        int shift = (ticks % 2) * 4;
+        inputs[index] |= (input & INPUT_MASK) << shift;
+        ticks++;
+    }
+    
+    /**
+     * Returns how many ticks have been recorded.
+     * 
+     * @return the tick count
+     */
+    public int getTickCount() {
+        return ticks;
+    }
+    
+    /**
+     * Writes the recording to a file.
+     * 
+     * @param path the file to write
+     * @throws IOException if the file can't be written
+     */
+    public void save(String path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(seed);
+            out.writeInt(width);
+            out.writeInt(height);
+            out.writeInt(ticks);
+            out.write(inputs, 0, (ticks + 1) / 2);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package game;
+
+/**
+ * This interface supplies the ship's controls for each tick when the game is not
+ * driven by a keyboard, e.g. in a headless simulation.
+ */
+public interface InputScript {
+    
+    /**
+     * A script that keeps turning left and firing, so bullets sweep the whole field.
+     */
+    InputScript SPIN_AND_SHOOT = frame -> Ship.LEFT | Ship.SHOOT;
+    
+    /**
+     * Returns the controls that are held down during the given tick.
+     * 
+     * @param frame the number of the tick about to run
+     * @return any combination of Ship.FORWARD, Ship.LEFT, Ship.RIGHT and Ship.SHOOT
+     */
+    int inputFor(int frame);
+
+}
@@ -0,0 +1,97 @@
+package game;
+
+import java.util.Arrays;
+
+/**
+ * This class is a growable list of primitive ints.
+ * It is used for lists of asteroid indices so hot loops don't box every index.
+ */
+public class IntList {
+    
+    private int[] items;
+    private int size;
+    
+    /**
+     * Constructs a new empty IntList.
+     * 
+     * @param capacity the number of ints it can hold before growing
+     */
+    public IntList(int capacity) {
+        this.items = new int[Math.max(1, capacity)];
+        this.size = 0;
+    }
+    
+    /**
+     * Adds an int to the end of the list, growing the storage if needed.
+     * 
+     * @param value the int to add
+     */
+    public void add(int value) {
+        if (size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+        }
+        items[size++] = value;
+    }
+    
+    /**
+     * Adds every int of another list to the end of this one, in order.
+     * 
+     * @param other the list to append
+     */
+    public void addAll(IntList other) {
+        for (int i = 0; i < other.size; i++) {
+            add(other.items[i]);
+        }
+    }
+    
+    /**
+     * Returns the int at the given position.
+     * 
+     * @param index the position in the list
+     * @return the int stored there
+     */
+    public int get(int index) {
+        return items[index];
+    }
+    
+    /**
+     * Replaces the int at the given position.
+     * 
+     * @param index the position in the list
+     * @param value the int to store there
+     */
+    public void set(int index, int value) {
+        items[index] = value;
+    }
+    
+    /**
+     * Returns whether the list holds the given int.
+     * 
+     * @param value the int to look for
+     * @return true if it is in the list
+     */
+    public boolean contains(int value) {
+        for (int i = 0; i < size; i++) {
+            if (items[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Returns the number of ints in the list.
+     * 
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Empties the list, keeping the storage for reuse.
+     */
+    public void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,48 @@
+package game;
+
+/**
+ * This interface moves a range of objects stored as primitive arrays by one step
+ * and wraps them around the screen edges, the way AsteroidField moves its asteroids.
+ * The plain loop in ScalarMotionKernel always works. A SIMD version built on the
+ * incubating Vector API lives in the separate vector module and is picked up by load()
+ * when it is on the class path and the JVM was started with --add-modules jdk.incubator.vector.
+ * Every kernel must give exactly the same positions as the scalar one.
+ */
+public interface MotionKernel {
+    
+    /**
+     * Saves the current positions, adds the velocities and wraps the new positions
+     * 10 pixels outside the playfield, like Utilities.wrapX and Utilities.wrapY.
+     * 
+     * @param x the x-coordinates, updated in place
+     * @param y the y-coordinates, updated in place
+     * @param previousX receives the x-coordinates before the move
+     * @param previousY receives the y-coordinates before the move
+     * @param dx the distance moved along the x-axis each tick
+     * @param dy the distance moved along the y-axis each tick
+     * @param from the index of the first object to move
+     * @param to one past the index of the last object to move
+     * @param width the width of the playfield
+     * @param height the height of the playfield
+     */
+    void move(double[] x, double[] y, double[] previousX, double[] previousY, double[] dx, double[] dy,
+            int from, int to, int width, int height);
+    
+    /**
+     * Returns the fastest kernel this JVM can run. The vector kernel is used unless the
+     * game.vectorMotion system property is false or it can't be loaded.
+     * 
+     * @return the motion kernel
+     */
+    static MotionKernel load() {
+        if ("false".equals(System.getProperty("game.vectorMotion"))) {
+            return new ScalarMotionKernel();
+        }
+        try {
+            return (MotionKernel)Class.forName("game.VectorMotionKernel").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError exc) {
+            // Not on the class path, or jdk.incubator.vector wasn't added to the JVM
+            return new ScalarMotionKernel();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package game;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one phase of drawing a frame, e.g. the world or the HUD.
+ */
+@Name("game.Paint")
+@Label("Paint")
+@Category("Asteroids")
+@Description("One phase of drawing a frame")
+@StackTrace(false)
+class PaintEvent extends jdk.jfr.Event {
+    
+    @Label("Frame")
+    int frame;
+    
+    @Label("Phase")
+    String phase;
+    
+    @Label("Asteroids")
+    int asteroids;
+    
+    @Label("Interpolation")
+    double alpha;
+    
+    @Label("Drawn")
+    int drawn;
+    
+    @Label("Culled")
+    int culled;
+}
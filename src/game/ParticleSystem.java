@@ -0,0 +1,229 @@
+package game;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+
+/**
+ * This class holds every explosion particle in the world in one ring buffer of primitive
+ * arrays (x, y, dx, dy, deathFrame), instead of an object per explosion and per particle.
+ * All particles live for the same number of frames and are added in frame order, so they
+ * also die in the order they were added: expiring them is just moving the head of the ring
+ * past the dead ones, and an update is one pass over the live ones that allocates nothing.
+ * The ring doubles in size when it is full, so it can hold 100k+ particles.
+ */
+public class ParticleSystem implements Drawable {
+    
+    public static final int PARTICLES_PER_EXPLOSION = 9;
+    private static final double PARTICLE_VELOCITY = 1;
+    private static final int PARTICLE_SIZE = 2;
+    
+    private final int life;
+    private double[] x;
+    private double[] y;
+    private double[] dx;
+    private double[] dy;
+    private int[] deathFrame;
+    // Index of the oldest particle, and capacity - 1 (the capacity is a power of two)
+    private int head;
+    private int size;
+    private int mask;
+    
+    /**
+     * Constructs a new empty ParticleSystem.
+     * 
+     * @param capacity how many particles to make room for up front, rounded up to a power of two
+     * @param life how many frames each particle lives
+     */
+    public ParticleSystem(int capacity, int life) {
+        int rounded = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.life = life;
+        this.x = new double[rounded];
+        this.y = new double[rounded];
+        this.dx = new double[rounded];
+        this.dy = new double[rounded];
+        this.deathFrame = new int[rounded];
+        this.mask = rounded - 1;
+    }
+    
+    /**
+     * Starts an explosion at (px, py): particles evenly spread around the circle,
+     * all moving outward from the same whole-pixel point.
+     * 
+     * @param px the x-coordinate of the explosion center
+     * @param py the y-coordinate of the explosion center
+     * @param frame the world's frame number when the explosion starts
+     */
+    public void explode(double px, double py, int frame) {
+        int centerX = (int)px;
+        int centerY = (int)py;
+        for (int i = 1; i <= PARTICLES_PER_EXPLOSION; i++) {
+            double angle = i * 360 / PARTICLES_PER_EXPLOSION;
+            add(centerX, centerY, Utilities.directionX(angle, PARTICLE_VELOCITY),
+                    Utilities.directionY(angle, PARTICLE_VELOCITY), frame);
+        }
+    }
+    
+    /**
+     * Adds one particle at the tail of the ring, growing the ring if it is full.
+     * 
+     * @param px the starting x-coordinate
+     * @param py the starting y-coordinate
+     * @param stepX the distance moved along the x-axis each frame
+     * @param stepY the distance moved along the y-axis each frame
+     * @param frame the world's frame number when the particle is added
+     */
+    public void add(double px, double py, double stepX, double stepY, int frame) {
+        if (size == x.length) {
+            grow();
+        }
+        int i = (head + size) & mask;
+        x[i] = px;
+        y[i] = py;
+        dx[i] = stepX;
+        dy[i] = stepY;
+        deathFrame[i] = frame + life;
+        size++;
+    }
+    
+    /**
+     * Doubles the ring, copying the live particles to the front in order.
+     */
+    private void grow() {
+        int capacity = x.length * 2;
+        x = unwrap(x, capacity);
+        y = unwrap(y, capacity);
+        dx = unwrap(dx, capacity);
+        dy = unwrap(dy, capacity);
+        int[] deaths = new int[capacity];
+        int first = Math.min(size, deathFrame.length - head);
+        System.arraycopy(deathFrame, head, deaths, 0, first);
+        System.arraycopy(deathFrame, 0, deaths, first, size - first);
+        deathFrame = deaths;
+        head = 0;
+        mask = capacity - 1;
+    }
+    
+    /**
+     * Copies the live part of one ring array to the front of a bigger array.
+     * 
+     * @param values the ring array
+     * @param capacity the length of the new array
+     * @return the new array
+     */
+    private double[] unwrap(double[] values, int capacity) {
+        double[] copy = new double[capacity];
+        int first = Math.min(size, values.length - head);
+        System.arraycopy(values, head, copy, 0, first);
+        System.arraycopy(values, 0, copy, first, size - first);
+        return copy;
+    }
+    
+    /**
+     * Drops the particles that died before this frame and moves the rest.
+     * Particles in their last frame stay where they are for one more frame before they are dropped.
+     * 
+     * @param frame the world's current frame number
+     */
+    public void update(int frame) {
+        while (size > 0 && deathFrame[head] < frame) {
+            head = (head + 1) & mask;
+            size--;
+        }
+        // The live particles are one or two contiguous runs of the ring
+        int first = Math.min(size, x.length - head);
+        move(head, head + first, frame);
+        move(0, size - first, frame);
+    }
+    
+    /**
+     * Moves a contiguous run of particles that are still alive in this frame.
+     * 
+     * @param from the index of the first particle
+     * @param to one past the index of the last particle
+     * @param frame the world's current frame number
+     */
+    private void move(int from, int to, int frame) {
+        for (int i = from; i < to; i++) {
+            if (frame < deathFrame[i]) {
+                x[i] += dx[i];
+                y[i] += dy[i];
+            }
+        }
+    }
+    
+    /**
+     * Removes every particle.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+    
+    /**
+     * Draws every particle inside the Graphics object's clip as a small white square.
+     * 
+     * @param brush the Graphics object used for drawing
+     */
+    @Override
+    public void draw(Graphics brush) {
+        Rectangle clip = brush.getClipBounds();
+        brush.setColor(Color.white);
+        for (int k = 0; k < size; k++) {
+            int i = (head + k) & mask;
+            // A pixel of slack on every side, like RenderBatch.isVisible
+            if (clip == null || clip.intersects(x[i] - 1, y[i] - 1, PARTICLE_SIZE + 2, PARTICLE_SIZE + 2)) {
+                brush.fillRect((int)x[i], (int)y[i], PARTICLE_SIZE, PARTICLE_SIZE);
+            }
+        }
+    }
+    
+    /**
+     * Draws every particle inside the view as a small white square straight away,
+     * counting each one as drawn or culled in the view.
+     * 
+     * @param brush the Graphics object used for drawing
+     * @param view the batch whose visible area and counters are used; nothing is added to it
+     */
+    public void draw(Graphics brush, RenderBatch view) {
+        brush.setColor(Color.white);
+        for (int k = 0; k < size; k++) {
+            int i = (head + k) & mask;
+            if (view.isVisible(x[i], y[i], x[i] + PARTICLE_SIZE, y[i] + PARTICLE_SIZE)) {
+                brush.fillRect((int)x[i], (int)y[i], PARTICLE_SIZE, PARTICLE_SIZE);
+            }
+        }
+    }
+    
+    /**
+     * Adds every particle on screen to a batch as a small square.
+     * 
+     * @param batch the batch collecting this frame's drawing
+     */
+    public void draw(RenderBatch batch) {
+        for (int k = 0; k < size; k++) {
+            int i = (head + k) & mask;
+            if (batch.isVisible(x[i], y[i], x[i] + PARTICLE_SIZE, y[i] + PARTICLE_SIZE)) {
+                batch.addSquare((int)x[i], (int)y[i], PARTICLE_SIZE);
+            }
+        }
+    }
+    
+    /**
+     * Returns the number of live particles.
+     * 
+     * @return the particle count
+     */
+    public int getParticleCount() {
+        return size;
+    }
+    
+    /**
+     * Returns how many particles the ring can hold before it has to grow.
+     * 
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return x.length;
+    }
+}
@@ -22,6 +22,21 @@ class Polygon {
   public Point position;   // The offset mentioned above.
   public double rotation; // Zero degrees is due east.
   
+  // The centroid and area never change after construction, so they are
+  // computed once. The world-space points and their bounding box are kept in
+  // reusable buffers and only recomputed when the position or rotation moved.
+  private Point center;
+  private double area;
+  private double radius;
+  private Point[] points;
+  private boolean dirty;
+  private double cachedX, cachedY, cachedRotation;
+  private double minX, minY, maxX, maxY;
+  
+  // Where the polygon was at the start of the current tick, used to draw it
+  // in between ticks.
+  private double previousX, previousY;
+  
   public Polygon(Point[] inShape, Point inPosition, double inRotation) {
     shape = inShape;
     position = inPosition;
@@ -39,29 +54,68 @@ class Polygon {
       p.x -= origin.x;
       p.y -= origin.y;
     }
+    
+    area = findArea();
+    center = findCenter();
+    radius = findRadius();
+    points = new Point[shape.length];
+    for (int i = 0; i < shape.length; i++) {
+      points[i] = new Point(0,0);
+    }
+    dirty = true;
+    savePosition();
   }
   
   // "getPoints" applies the rotation and offset to the shape of the polygon.
+  // The returned array is a shared buffer that is overwritten the next time
+  // the polygon moves, so callers should not hold on to it.
   public Point[] getPoints() {
-    Point center = findCenter();
-    Point[] points = new Point[shape.length];
+    updatePoints();
+    return points;
+  }
+  
+  // "updatePoints" refreshes the cached points and bounding box if needed.
+  // 'position' and 'rotation' are public, so besides the dirty flag set by
+  // the setters we also notice values that were changed directly.
+  private void updatePoints() {
+    if (!dirty && position.x == cachedX && position.y == cachedY
+        && rotation == cachedRotation) {
+      return;
+    }
+    double cos = FastTrig.cos(rotation);
+    double sin = FastTrig.sin(rotation);
+    minX = Double.POSITIVE_INFINITY;
+    minY = Double.POSITIVE_INFINITY;
+    maxX = Double.NEGATIVE_INFINITY;
+    maxY = Double.NEGATIVE_INFINITY;
     for (int i = 0; i < shape.length; i++) {
-//    for (Point p : shape) {
       Point p = shape[i];
-      double x = ((p.x-center.x) * Math.cos(Math.toRadians(rotation)))
-               - ((p.y-center.y) * Math.sin(Math.toRadians(rotation)))
+      double x = ((p.x-center.x) * cos)
+               - ((p.y-center.y) * sin)
                + center.x/2 + position.x;
-      double y = ((p.x-center.x) * Math.sin(Math.toRadians(rotation)))
-               + ((p.y-center.y) * Math.cos(Math.toRadians(rotation)))
+      double y = ((p.x-center.x) * sin)
+               + ((p.y-center.y) * cos)
                + center.y/2 + position.y;
-      points[i] = new Point(x,y);
+      points[i].x = x;
+      points[i].y = y;
+      if (x < minX) minX = x;
+      if (x > maxX) maxX = x;
+      if (y < minY) minY = y;
+      if (y > maxY) maxY = y;
     }
-    return points;
+    cachedX = position.x;
+    cachedY = position.y;
+    cachedRotation = rotation;
+    dirty = false;
   }
   
   // "contains" implements some magical math (i.e. the ray-casting algorithm).
+  // Points outside the bounding box are rejected before the ray-cast.
   public boolean contains(Point point) {
-    Point[] points = getPoints();
+    updatePoints();
+    if (point.x < minX || point.x > maxX || point.y < minY || point.y > maxY) {
+      return false;
+    }
     double crossingNumber = 0;
     for (int i = 0, j = 1; i < shape.length; i++, j=(j+1)%shape.length) {
       if ((((points[i].x < point.x) && (point.x <= points[j].x)) ||
@@ -79,24 +133,59 @@ class Polygon {
    * @param brush the Graphics object used for drawing
    */
   public void drawPolygon(Graphics brush) {
+	  drawPolygon(brush, 1);
+  }
+  
+  /**
+   * Draws the polygon at a position interpolated between where it was at the
+   * start of the tick and where it is now.
+   * @param brush the Graphics object used for drawing
+   * @param alpha how far between the previous and current position, from 0 to 1
+   */
+  public void drawPolygon(Graphics brush, double alpha) {
+	  double x = interpolateX(alpha);
+	  double y = interpolateY(alpha);
 	  for(int i = 0; i < shape.length-1; i++) {
 		 brush.drawLine(
-				 (int)(shape[i].getX()+this.position.getX()), 
-				 (int)(shape[i].getY()+this.position.getY()),
-				 (int)(shape[i+1].getX()+this.position.getX()),
-				 (int)(shape[i+1].getY()+this.position.getY())); 
+				 (int)(shape[i].getX()+x), 
+				 (int)(shape[i].getY()+y),
+				 (int)(shape[i+1].getX()+x),
+				 (int)(shape[i+1].getY()+y)); 
 	  }
 	  brush.drawLine(
-				 (int)(shape[shape.length-1].getX()+this.position.getX()), 
-				 (int)(shape[shape.length-1].getY()+this.position.getY()),
-				 (int)(shape[0].getX()+this.position.getX()),
-				 (int)(shape[0].getY()+this.position.getY())); 
+				 (int)(shape[shape.length-1].getX()+x), 
+				 (int)(shape[shape.length-1].getY()+y),
+				 (int)(shape[0].getX()+x),
+				 (int)(shape[0].getY()+y)); 
 	  }
  
   
   
   
-  public void rotate(int degrees) {rotation = (rotation+degrees)%360;}
+  public void rotate(int degrees) {rotation = (rotation+degrees)%360; dirty = true;}
+  
+  // Setters that mark the cached points as out of date.
+  public void setPosition(Point inPosition) {position = inPosition; dirty = true;}
+  public void setRotation(double inRotation) {rotation = inRotation; dirty = true;}
+  
+  // "savePosition" remembers the current position as the tick's start point.
+  public void savePosition() {previousX = position.x; previousY = position.y;}
+  
+  // "interpolateX"/"interpolateY" blend the saved and current position.
+  public double interpolateX(double alpha) {return Utilities.interpolate(previousX, position.x, alpha);}
+  public double interpolateY(double alpha) {return Utilities.interpolate(previousY, position.y, alpha);}
+  
+  // Bounding box of the points returned by "getPoints".
+  public double getMinX() {updatePoints(); return minX;}
+  public double getMinY() {updatePoints(); return minY;}
+  public double getMaxX() {updatePoints(); return maxX;}
+  public double getMaxY() {updatePoints(); return maxY;}
+  
+  // Bounding circle of the points returned by "getPoints". Rotation turns the
+  // points about this center, so the radius is found once and never changes.
+  public double getBoundsCenterX() {return center.x/2 + position.x;}
+  public double getBoundsCenterY() {return center.y/2 + position.y;}
+  public double getBoundingRadius() {return radius;}
   
   /*
   The following methods are private access restricted because, as this access
@@ -104,6 +193,15 @@ class Polygon {
   methods in this class that are not private. They can't be used anywhere else.
   */
   
+  // "findRadius" finds the point furthest from the center the shape turns about.
+  private double findRadius() {
+    double max = 0;
+    for (Point p : shape) {
+      max = Math.max(max, Math.hypot(p.x-center.x, p.y-center.y));
+    }
+    return max;
+  }
+  
   // "findArea" implements some more magic math.
   private double findArea() {
     double sum = 0;
@@ -122,7 +220,6 @@ class Polygon {
       sum.y += (shape[i].y + shape[j].y)
                * (shape[i].x * shape[j].y - shape[j].x * shape[i].y);
     }
-    double area = findArea();
     return new Point(Math.abs(sum.x/(6*area)),Math.abs(sum.y/(6*area)));
   }
 }
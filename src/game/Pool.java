@@ -0,0 +1,89 @@
+package game;
+
+import java.util.function.Supplier;
+
+/**
+ * This class is a bounded pool of reusable objects, so short-lived game objects
+ * like bullets and explosions can be recycled instead of allocated every time.
+ * Objects handed out by acquire() may be recycled ones, so callers must re-initialise them.
+ * Hit and miss counters show how well the pool is keeping up.
+ * 
+ * @param <T> the type of object pooled
+ */
+public class Pool<T> {
+    
+    private final Object[] items;
+    private final Supplier<T> factory;
+    private int size;
+    private long hits;
+    private long misses;
+    
+    /**
+     * Constructs a new empty pool.
+     * 
+     * @param capacity the most released objects the pool keeps; extra ones are left to the GC
+     * @param factory creates a new object when the pool is empty
+     */
+    public Pool(int capacity, Supplier<T> factory) {
+        this.items = new Object[capacity];
+        this.factory = factory;
+        this.size = 0;
+        this.hits = 0;
+        this.misses = 0;
+    }
+    
+    /**
+     * Takes an object out of the pool, or creates a new one if the pool is empty.
+     * 
+     * @return an object that needs to be re-initialised by the caller
+     */
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if (size > 0) {
+            hits++;
+            T item = (T)items[--size];
+            items[size] = null;
+            return item;
+        }
+        misses++;
+        return factory.get();
+    }
+    
+    /**
+     * Gives an object back to the pool once the game is done with it.
+     * 
+     * @param item the object to recycle
+     */
+    public void release(T item) {
+        if (size < items.length) {
+            items[size++] = item;
+        }
+    }
+    
+    /**
+     * Returns how many acquires were served by a recycled object.
+     * 
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits;
+    }
+    
+    /**
+     * Returns how many acquires had to create a new object.
+     * 
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+    
+    /**
+     * Returns how many objects are waiting in the pool.
+     * 
+     * @return the number of pooled objects
+     */
+    public int getAvailable() {
+        return size;
+    }
+}
@@ -0,0 +1,235 @@
+package game;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * This class times the phases of each tick and frame with System.nanoTime and keeps the
+ * most recent samples of every phase in a ring buffer, so p50/p99 timings, frames per second
+ * and the allocation rate of the game thread can be shown in an on-screen overlay.
+ * While it is turned off, begin() and end() only read a flag, so the calls can stay in the game loop.
+ */
+public class Profiler implements Drawable {
+    
+    public static final int SHIP_UPDATE = 0;
+    public static final int FIELD_UPDATE = 1;
+    public static final int COLLISIONS = 2;
+    public static final int PARTICLES = 3;
+    public static final int DRAWING = 4;
+    public static final int PHASE_COUNT = 5;
+    private static final String[] PHASE_NAMES = {"ship", "field", "collisions", "particles", "drawing"};
+    // Samples kept per phase, about four seconds of ticks
+    private static final int HISTORY = 256;
+    private static final int OVERLAY_X = 520;
+    
+    private final long[][] samples;
+    // Running totals, long so the ring indices taken from them never overflow into negatives
+    private final long[] sampleCounts;
+    private final long[] sorted;
+    private final long[] frameTimes;
+    private long frameCount;
+    private final long[] tickTimes;
+    private final long[] allocatedBytes;
+    private long tickCount;
+    private final com.sun.management.ThreadMXBean threads;
+    private volatile boolean enabled;
+    
+    /**
+     * Constructs a new Profiler, turned on only if the game.profile system property is true.
+     */
+    public Profiler() {
+        samples = new long[PHASE_COUNT][HISTORY];
+        sampleCounts = new long[PHASE_COUNT];
+        sorted = new long[HISTORY];
+        frameTimes = new long[HISTORY];
+        tickTimes = new long[HISTORY];
+        allocatedBytes = new long[HISTORY];
+        threads = allocationBean();
+        enabled = Boolean.getBoolean("game.profile");
+    }
+    
+    /**
+     * Returns the HotSpot thread bean with allocation counting turned on,
+     * or null if this JVM can't count allocated bytes per thread.
+     * 
+     * @return the thread bean, or null
+     */
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        if (!bean.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        bean.setThreadAllocatedMemoryEnabled(true);
+        return bean;
+    }
+    
+    /**
+     * Marks the start of a phase.
+     * 
+     * @return the start time to pass to end(), or 0 if the profiler is off
+     */
+    public long begin() {
+        return enabled ? System.nanoTime() : 0;
+    }
+    
+    /**
+     * Marks the end of a phase and records how long it took.
+     * 
+     * @param phase the phase that ended, e.g. FIELD_UPDATE
+     * @param start the value begin() returned when the phase started
+     */
+    public void end(int phase, long start) {
+        if (start == 0) {
+            return;
+        }
+        samples[phase][(int)(sampleCounts[phase]++ % HISTORY)] = System.nanoTime() - start;
+    }
+    
+    /**
+     * Records the end of a tick along with how many bytes the ticking thread has allocated so far.
+     * When frames are drawn on the same thread, their allocations count too.
+     */
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        int slot = (int)(tickCount++ % HISTORY);
+        tickTimes[slot] = System.nanoTime();
+        allocatedBytes[slot] = threads != null ? threads.getCurrentThreadAllocatedBytes() : 0;
+    }
+    
+    /**
+     * Records that a frame was drawn, for the frames per second display.
+     */
+    public void frame() {
+        if (!enabled) {
+            return;
+        }
+        frameTimes[(int)(frameCount++ % HISTORY)] = System.nanoTime();
+    }
+    
+    /**
+     * Returns the given percentile of the recorded timings of a phase.
+     * 
+     * @param phase the phase, e.g. DRAWING
+     * @param percentile the percentile, from 0 to 100
+     * @return the timing in nanoseconds, or 0 if nothing was recorded
+     */
+    public long percentile(int phase, double percentile) {
+        int count = (int)Math.min(sampleCounts[phase], HISTORY);
+        if (count == 0) {
+            return 0;
+        }
+        System.arraycopy(samples[phase], 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+        return sorted[Math.min(count - 1, (int)(count * percentile / 100))];
+    }
+    
+    /**
+     * Returns how many frames per second were drawn over the recorded frames.
+     * 
+     * @return the frame rate
+     */
+    public double getFramesPerSecond() {
+        return rate(frameTimes, frameCount, null);
+    }
+    
+    /**
+     * Returns how many bytes per second the ticking thread allocated over the recorded ticks.
+     * 
+     * @return the allocation rate, or 0 if the JVM can't count allocations
+     */
+    public double getAllocationRate() {
+        return threads != null ? rate(tickTimes, tickCount, allocatedBytes) : 0;
+    }
+    
+    /**
+     * Works out a per-second rate between the oldest and newest entries of a ring buffer.
+     * 
+     * @param times the time stamps in nanoseconds
+     * @param count how many entries have been recorded in total
+     * @param values the running totals to take the rate of, or null to count the entries
+     * @return the rate per second
+     */
+    private static double rate(long[] times, long count, long[] values) {
+        if (count < 2) {
+            return 0;
+        }
+        int newest = (int)((count - 1) % HISTORY);
+        int oldest = count > HISTORY ? (int)(count % HISTORY) : 0;
+        int entries = (int)Math.min(count, HISTORY) - 1;
+        double seconds = (times[newest] - times[oldest]) / 1e9;
+        if (seconds <= 0) {
+            return 0;
+        }
+        return (values == null ? entries : values[newest] - values[oldest]) / seconds;
+    }
+    
+    /**
+     * Draws the overlay with the timings of every phase, the frame rate and the allocation rate.
+     * Entity counts are drawn by draw(Graphics, World).
+     * 
+     * @param brush the Graphics object used for drawing
+     */
+    @Override
+    public void draw(Graphics brush) {
+        int y = 20;
+        brush.setColor(Color.yellow);
+        brush.drawString(String.format("%.0f fps, %.1f MB/s allocated", getFramesPerSecond(),
+                getAllocationRate() / (1024 * 1024)), OVERLAY_X, y);
+        for (int phase = 0; phase < PHASE_COUNT; phase++) {
+            y += 15;
+            brush.drawString(String.format("%-10s p50 %6.3f ms  p99 %6.3f ms", PHASE_NAMES[phase],
+                    percentile(phase, 50) / 1e6, percentile(phase, 99) / 1e6), OVERLAY_X, y);
+        }
+    }
+    
+    /**
+     * Draws the overlay along with how many entities the world holds
+     * and how many of them were drawn or culled in the last frame.
+     * 
+     * @param brush the Graphics object used for drawing
+     * @param world the world to count entities in
+     */
+    public void draw(Graphics brush, World world) {
+        draw(brush);
+        brush.drawString("asteroids " + world.getAsteroidCount() + ", bullets " + world.getShip().getBullets().size()
+                + ", particles " + world.getParticleCount(), OVERLAY_X, 20 + 15 * (PHASE_COUNT + 1));
+        RenderBatch batch = world.getRenderBatch();
+        brush.drawString("drawn " + batch.getDrawnCount() + ", culled " + batch.getCulledCount(),
+                OVERLAY_X, 20 + 15 * (PHASE_COUNT + 2));
+    }
+    
+    /**
+     * Turns the profiler on or off.
+     * 
+     * @param enabled true to record timings
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    /**
+     * Returns whether the profiler is recording timings.
+     * 
+     * @return true if it is on
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Returns the display name of a phase.
+     * 
+     * @param phase the phase, e.g. COLLISIONS
+     * @return the name of the phase
+     */
+    public static String getPhaseName(int phase) {
+        return PHASE_NAMES[phase];
+    }
+}
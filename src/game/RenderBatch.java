@@ -0,0 +1,185 @@
+package game;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+
+/**
+ * This class collects everything drawn in one frame into two shapes, one of outlines and one
+ * of filled areas, so a whole frame takes a couple of Java2D calls instead of one call per
+ * edge or particle. Vertices are truncated to whole pixels like drawLine() does, so a batched
+ * frame looks the same as one drawn a line at a time.
+ * The paths keep their storage between frames, so batching doesn't allocate once it has grown.
+ * Entities whose bounding box is outside the visible area are culled before any of their
+ * vertices are touched, and the batch counts how many were drawn and how many were culled.
+ */
+public class RenderBatch {
+    
+    private final Path2D.Float outlines;
+    private final Path2D.Float fills;
+    private final Ellipse2D.Float oval;
+    private double viewMinX;
+    private double viewMinY;
+    private double viewMaxX;
+    private double viewMaxY;
+    private int drawn;
+    private int culled;
+    
+    /**
+     * Constructs a new empty batch.
+     */
+    public RenderBatch() {
+        this.outlines = new Path2D.Float(Path2D.WIND_NON_ZERO, 1024);
+        this.fills = new Path2D.Float(Path2D.WIND_NON_ZERO, 1024);
+        this.oval = new Ellipse2D.Float();
+    }
+    
+    /**
+     * Starts a new frame that will be drawn with the given Graphics object.
+     * The visible area is its clip, or the whole canvas if it has none.
+     * 
+     * @param brush the Graphics object the frame will be drawn with
+     * @param width the width of the canvas
+     * @param height the height of the canvas
+     */
+    public void begin(Graphics brush, int width, int height) {
+        Rectangle clip = brush.getClipBounds();
+        if (clip == null) {
+            setView(0, 0, width, height);
+        } else {
+            setView(clip.x, clip.y, clip.x + clip.width, clip.y + clip.height);
+        }
+    }
+    
+    /**
+     * Sets the visible area and resets the drawn and culled counts.
+     * 
+     * @param minX the left edge of the visible area
+     * @param minY the top edge of the visible area
+     * @param maxX the right edge of the visible area
+     * @param maxY the bottom edge of the visible area
+     */
+    public void setView(double minX, double minY, double maxX, double maxY) {
+        viewMinX = minX;
+        viewMinY = minY;
+        viewMaxX = maxX;
+        viewMaxY = maxY;
+        drawn = 0;
+        culled = 0;
+    }
+    
+    /**
+     * Checks whether anything inside a bounding box can show up in the visible area,
+     * and counts the entity as drawn or culled. A pixel of slack is left on every side
+     * for the truncation to whole pixels and the width of the lines.
+     * 
+     * @param minX the left edge of the bounding box
+     * @param minY the top edge of the bounding box
+     * @param maxX the right edge of the bounding box
+     * @param maxY the bottom edge of the bounding box
+     * @return true if the entity should be drawn
+     */
+    public boolean isVisible(double minX, double minY, double maxX, double maxY) {
+        if (maxX + 1 < viewMinX || minX - 1 > viewMaxX || maxY + 1 < viewMinY || minY - 1 > viewMaxY) {
+            culled++;
+            return false;
+        }
+        drawn++;
+        return true;
+    }
+    
+    /**
+     * Returns how many entities were drawn in the current frame.
+     * 
+     * @return the drawn count
+     */
+    public int getDrawnCount() {
+        return drawn;
+    }
+    
+    /**
+     * Returns how many entities were skipped in the current frame for being out of view.
+     * 
+     * @return the culled count
+     */
+    public int getCulledCount() {
+        return culled;
+    }
+    
+    /**
+     * Adds a closed outline given as points relative to (x, y).
+     * 
+     * @param pointX the x-coordinates of the outline
+     * @param pointY the y-coordinates of the outline
+     * @param x the x-coordinate the outline is drawn at
+     * @param y the y-coordinate the outline is drawn at
+     */
+    public void addOutline(double[] pointX, double[] pointY, double x, double y) {
+        outlines.moveTo((int)(pointX[0] + x), (int)(pointY[0] + y));
+        for (int i = 1; i < pointX.length; i++) {
+            outlines.lineTo((int)(pointX[i] + x), (int)(pointY[i] + y));
+        }
+        outlines.closePath();
+    }
+    
+    /**
+     * Adds a closed outline through the given points, moved by an offset.
+     * 
+     * @param points the points of the outline
+     * @param offsetX how far to move the outline along the x-axis
+     * @param offsetY how far to move the outline along the y-axis
+     */
+    public void addOutline(Point[] points, double offsetX, double offsetY) {
+        outlines.moveTo((int)(points[0].getX() + offsetX), (int)(points[0].getY() + offsetY));
+        for (int i = 1; i < points.length; i++) {
+            outlines.lineTo((int)(points[i].getX() + offsetX), (int)(points[i].getY() + offsetY));
+        }
+        outlines.closePath();
+    }
+    
+    /**
+     * Adds a filled square, like fillRect(x, y, size, size).
+     * 
+     * @param x the left edge of the square
+     * @param y the top edge of the square
+     * @param size the side length of the square
+     */
+    public void addSquare(int x, int y, int size) {
+        fills.moveTo(x, y);
+        fills.lineTo(x + size, y);
+        fills.lineTo(x + size, y + size);
+        fills.lineTo(x, y + size);
+        fills.closePath();
+    }
+    
+    /**
+     * Adds a filled oval, like fillOval(x, y, width, height).
+     * 
+     * @param x the left edge of the oval's bounding box
+     * @param y the top edge of the oval's bounding box
+     * @param width the width of the oval
+     * @param height the height of the oval
+     */
+    public void addOval(int x, int y, int width, int height) {
+        oval.setFrame(x, y, width, height);
+        fills.append(oval, false);
+    }
+    
+    /**
+     * Draws everything in the batch in one color and empties it for the next frame.
+     * 
+     * @param brush the Graphics object used for drawing
+     * @param color the color to draw in
+     */
+    public void flush(Graphics brush, Color color) {
+        Graphics2D brush2D = (Graphics2D)brush;
+        brush2D.setColor(color);
+        brush2D.draw(outlines);
+        brush2D.fill(fills);
+        outlines.reset();
+        fills.reset();
+    }
+}
@@ -0,0 +1,67 @@
+package game;
+
+/**
+ * This class is the one-point-at-a-time ContainsKernel. Points outside the polygon's
+ * bounding box are skipped, but unlike AsteroidShape.contains the edge loop doesn't branch:
+ * the crossing tests are combined with non-short-circuit operators and the parity is
+ * flipped with xor, which keeps the loop free of hard to predict jumps. It is used
+ * whenever the vector kernel isn't available, and handles the leftover points at the
+ * end of a range for it.
+ */
+public class ScalarContainsKernel implements ContainsKernel {
+    
+    /**
+     * Tests each point in turn against every edge.
+     * 
+     * @param edgeX the x-coordinates of the polygon's points, relative to (x, y)
+     * @param edgeY the y-coordinates of the polygon's points, relative to (x, y)
+     * @param minX the left edge of the polygon's bounding box, relative to (x, y)
+     * @param minY the top edge of the polygon's bounding box, relative to (x, y)
+     * @param maxX the right edge of the polygon's bounding box, relative to (x, y)
+     * @param maxY the bottom edge of the polygon's bounding box, relative to (x, y)
+     * @param x the x-coordinate the polygon is placed at
+     * @param y the y-coordinate the polygon is placed at
+     * @param pointX the x-coordinates of the points to test
+     * @param pointY the y-coordinates of the points to test
+     * @param from the index of the first point to test
+     * @param to one past the index of the last point to test
+     * @param inside receives whether each point is inside, or null to only count them
+     * @return how many of the points are inside
+     */
+    @Override
+    public int contains(double[] edgeX, double[] edgeY, double minX, double minY, double maxX, double maxY,
+            double x, double y, double[] pointX, double[] pointY, int from, int to, boolean[] inside) {
+        int n = edgeX.length;
+        double left = minX + x;
+        double top = minY + y;
+        double right = maxX + x;
+        double bottom = maxY + y;
+        
+        int count = 0;
+        for (int p = from; p < to; p++) {
+            double px = pointX[p];
+            double py = pointY[p];
+            // Most points tested against an asteroid are outside its bounding box
+            boolean in = (px >= left) & (px <= right) & (py >= top) & (py <= bottom);
+            if (in) {
+                boolean odd = false;
+                for (int i = 0; i < n; i++) {
+                    int j = i + 1 < n ? i + 1 : 0;
+                    double xi = edgeX[i] + x;
+                    double yi = edgeY[i] + y;
+                    double xj = edgeX[j] + x;
+                    double yj = edgeY[j] + y;
+                    // Same expression as AsteroidShape.contains, so the rounding is the same
+                    odd ^= (((xi < px) & (px <= xj)) | ((xj < px) & (px <= xi)))
+                            & (py > yi + (yj - yi) / (xj - xi) * (px - xi));
+                }
+                in = odd;
+            }
+            if (inside != null) {
+                inside[p] = in;
+            }
+            count += in ? 1 : 0;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,34 @@
+package game;
+
+/**
+ * This class is the plain loop MotionKernel, one object at a time.
+ * It is used whenever the vector kernel isn't available, and handles the
+ * leftover objects at the end of a range for it.
+ */
+public class ScalarMotionKernel implements MotionKernel {
+    
+    /**
+     * Moves and wraps each object in turn.
+     * 
+     * @param x the x-coordinates, updated in place
+     * @param y the y-coordinates, updated in place
+     * @param previousX receives the x-coordinates before the move
+     * @param previousY receives the y-coordinates before the move
+     * @param dx the distance moved along the x-axis each tick
+     * @param dy the distance moved along the y-axis each tick
+     * @param from the index of the first object to move
+     * @param to one past the index of the last object to move
+     * @param width the width of the playfield
+     * @param height the height of the playfield
+     */
+    @Override
+    public void move(double[] x, double[] y, double[] previousX, double[] previousY, double[] dx, double[] dy,
+            int from, int to, int width, int height) {
+        for (int a = from; a < to; a++) {
+            previousX[a] = x[a];
+            previousY[a] = y[a];
+            x[a] = Utilities.wrapX(x[a] + dx[a], width);
+            y[a] = Utilities.wrapY(y[a] + dy[a], height);
+        }
+    }
+}
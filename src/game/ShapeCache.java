@@ -0,0 +1,140 @@
+package game;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class caches asteroid geometry so asteroids of the same template, size and
+ * orientation share one immutable AsteroidShape instead of each building its own.
+ * Only the shape's scale and angle are rounded, to SCALE_STEP and ANGLE_STEP, to make
+ * matches likely; the asteroid keeps its exact heading and scale for moving and splitting.
+ * The least recently used shapes are dropped once the cache is full.
+ */
+public class ShapeCache {
+    
+    public static final double SCALE_STEP = 0.5;
+    public static final double ANGLE_STEP = 10;
+    public static final int ANGLE_STEPS = (int)(360 / ANGLE_STEP);
+    
+    private final Point[][] templates;
+    private final LinkedHashMap<Long, AsteroidShape> shapes;
+    private int capacity;
+    private long hits;
+    private long misses;
+    
+    /**
+     * Constructs a new empty cache.
+     * 
+     * @param templates the asteroid templates shapes are built from
+     * @param capacity the most shapes kept at once
+     */
+    public ShapeCache(Point[][] templates, int capacity) {
+        this.templates = templates;
+        this.capacity = capacity;
+        this.hits = 0;
+        this.misses = 0;
+        // Access order makes iteration go from least to most recently used
+        this.shapes = new LinkedHashMap<Long, AsteroidShape>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, AsteroidShape> eldest) {
+                return size() > ShapeCache.this.capacity;
+            }
+        };
+    }
+    
+    /**
+     * Returns the shape for a template at the given scale and angle, building it on a miss.
+     * The returned shape is shared and must not be changed.
+     * 
+     * @param template the index of the template
+     * @param scale the size multiplier, rounded here with quantizeScale
+     * @param angle the rotation in degrees, rounded here with quantizeAngle
+     * @return the shared shape
+     */
+    public synchronized AsteroidShape get(int template, double scale, double angle) {
+        long scaleSteps = Math.round(scale / SCALE_STEP);
+        long angleSteps = Math.floorMod(Math.round(angle / ANGLE_STEP), ANGLE_STEPS);
+        Long key = ((long)template << 48) | (scaleSteps << 16) | angleSteps;
+        AsteroidShape shape = shapes.get(key);
+        if (shape != null) {
+            hits++;
+            return shape;
+        }
+        misses++;
+        shape = new AsteroidShape(templates[template], quantizeScale(scale), quantizeAngle(angle));
+        shapes.put(key, shape);
+        return shape;
+    }
+    
+    /**
+     * Rounds a scale to the step the cache stores shapes at.
+     * 
+     * @param scale the scale to round
+     * @return the rounded scale
+     */
+    public static double quantizeScale(double scale) {
+        return Math.round(scale / SCALE_STEP) * SCALE_STEP;
+    }
+    
+    /**
+     * Rounds an angle to the step the cache stores shapes at, between 0 and 360.
+     * 
+     * @param angle the angle in degrees
+     * @return the rounded angle
+     */
+    public static double quantizeAngle(double angle) {
+        return Math.floorMod(Math.round(angle / ANGLE_STEP), ANGLE_STEPS) * ANGLE_STEP;
+    }
+    
+    /**
+     * Changes how many shapes the cache may hold, dropping the least recently used if needed.
+     * 
+     * @param capacity the most shapes kept at once
+     */
+    public synchronized void setCapacity(int capacity) {
+        this.capacity = capacity;
+        Iterator<Long> keys = shapes.keySet().iterator();
+        while (shapes.size() > capacity && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+    
+    /**
+     * Returns how many lookups found a cached shape.
+     * 
+     * @return the number of hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+    
+    /**
+     * Returns how many lookups had to build a new shape.
+     * 
+     * @return the number of misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+    
+    /**
+     * Returns the share of lookups that found a cached shape.
+     * 
+     * @return the hit rate from 0 to 1, or 0 before the first lookup
+     */
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double)hits / lookups;
+    }
+    
+    /**
+     * Returns how many shapes are cached.
+     * 
+     * @return the number of shapes
+     */
+    public synchronized int size() {
+        return shapes.size();
+    }
+}
@@ -0,0 +1,893 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CyclicBarrier;
+
+/**
+ * This class simulates a very large asteroid field split across several threads, for stress
+ * and training runs with far more asteroids than one AsteroidField can tick.
+ * The wrap-around playfield is cut into vertical strips (shards), each owned by its own worker
+ * thread that moves the asteroids in its strip. An asteroid that crosses into another strip is
+ * handed to that shard through a lock-free queue. Each shard then copies the asteroids just
+ * across its borders as read-only ghosts, so bullets and the ship near a border are tested
+ * against everything that could touch them without reaching into another shard.
+ * Hits are applied on the calling thread in bullet order, like AsteroidField.checkCollisions,
+ * so the outcome doesn't depend on how many shards there are.
+ * There is no spawning, drawing or game over; the ship respawns when hit and the hits are counted.
+ */
+public class ShardedWorld implements Updatable {
+    
+    // Objects wrap 10 pixels outside the screen, see Utilities.wrapX
+    private static final double WRAP_MARGIN = 10;
+    // Wide enough for the biggest asteroid (about 84 pixels from its position at scale 4.5)
+    // plus the ship and one bullet step, so nothing outside a shard and its ghosts can touch it
+    private static final double GHOST_WIDTH = 128;
+    private static final int GRID_CELL_SIZE = 64;
+    private static final int TEMPLATE_COUNT = 3;
+    
+    private static final int MOVE = 0;
+    private static final int ARRIVE = 1;
+    private static final int COLLIDE = 2;
+    private static final int STOP = 3;
+    
+    private final int width;
+    private final int height;
+    private final double stripWidth;
+    private final Shard[] shards;
+    private final Thread[] workers;
+    private final CyclicBarrier start;
+    private final CyclicBarrier done;
+    private final Random random;
+    private final Ship ship;
+    private final ShapeCache shapeCache;
+    private volatile int phase;
+    private volatile Throwable failure;
+    private final int[] cursors;
+    private final IntList shipHits;
+    // Pieces split off this tick, as (shard, index) pairs
+    private final IntList pieces;
+    private int frame;
+    private int score;
+    private int shipHitCount;
+    
+    /**
+     * Constructs a new ShardedWorld and starts one worker thread per shard.
+     * 
+     * @param width the width of the playfield in pixels
+     * @param height the height of the playfield in pixels
+     * @param shardCount the number of strips to split the playfield into
+     * @param seed the seed for the random number generator
+     * @throws IllegalArgumentException if the strips would be narrower than the ghost zones
+     */
+    public ShardedWorld(int width, int height, int shardCount, long seed) {
+        this.width = width;
+        this.height = height;
+        this.stripWidth = (width + 2 * WRAP_MARGIN) / shardCount;
+        if (shardCount < 1 || (shardCount > 1 && stripWidth < GHOST_WIDTH)) {
+            throw new IllegalArgumentException(shardCount + " shards don't fit a playfield " + width + " pixels wide");
+        }
+        this.random = new Random(seed);
+        this.ship = new Ship(new Point(width / 2, height / 2), width, height);
+        this.shapeCache = AsteroidField.newShapeCache();
+        this.cursors = new int[shardCount];
+        this.shipHits = new IntList(8);
+        this.pieces = new IntList(16);
+        
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i);
+        }
+        this.start = new CyclicBarrier(shardCount + 1);
+        this.done = new CyclicBarrier(shardCount + 1);
+        this.workers = new Thread[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            Shard shard = shards[i];
+            workers[i] = new Thread(() -> work(shard), "Shard " + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+    
+    /**
+     * Spawns asteroids at random positions across the whole playfield.
+     * 
+     * @param count the number of asteroids to spawn
+     */
+    public void spawnAsteroids(int count) {
+        for (int i = 0; i < count; i++) {
+            int template = random.nextInt(TEMPLATE_COUNT);
+            int px = random.nextInt(width);
+            int py = random.nextInt(height);
+            double angle = random.nextInt(360);
+            double size = (random.nextDouble() * 2) + 2.5;
+            shards[ownerOf(px)].add(px, py, Utilities.directionX(angle, 1.0), Utilities.directionY(angle, 1.0),
+                    size, shapeCache.get(template, size, angle));
+        }
+    }
+    
+    /**
+     * Advances the simulation by one tick. The ship moves on this thread, the shards move
+     * and trade asteroids on their workers, the shards look for hits on their workers,
+     * and finally the hits are applied here.
+     */
+    @Override
+    public void update() {
+        frame++;
+        ship.update();
+        runPhase(MOVE);
+        runPhase(ARRIVE);
+        runPhase(COLLIDE);
+        commitHits();
+    }
+    
+    /**
+     * Runs one phase on every shard's worker and waits until all of them are done.
+     * 
+     * @param next the phase to run
+     */
+    private void runPhase(int next) {
+        phase = next;
+        await(start);
+        await(done);
+        if (failure != null) {
+            throw new IllegalStateException("A shard failed", failure);
+        }
+    }
+    
+    /**
+     * The loop each worker thread runs: wait for a phase, run it on its own shard, report back.
+     * 
+     * @param shard the shard this worker owns
+     */
+    private void work(Shard shard) {
+        while (true) {
+            await(start);
+            int current = phase;
+            if (current == STOP) {
+                return;
+            }
+            try {
+                shard.run(current);
+            } catch (RuntimeException | Error exc) {
+                failure = exc;
+            }
+            await(done);
+        }
+    }
+    
+    /**
+     * Waits at a barrier, turning its checked exceptions into an unchecked one.
+     * 
+     * @param barrier the barrier to wait at
+     */
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (InterruptedException exc) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(exc);
+        } catch (BrokenBarrierException exc) {
+            throw new IllegalStateException(exc);
+        }
+    }
+    
+    /**
+     * Stops the worker threads. The world can't be updated afterwards.
+     */
+    public void close() {
+        phase = STOP;
+        await(start);
+    }
+    
+    /**
+     * Applies the hits the shards found, in bullet order. Each bullet destroys at most one
+     * asteroid, the first of its hits that an earlier bullet hasn't already destroyed,
+     * and the destroyed asteroid splits straight away. The pieces are added after every
+     * asteroid the hits refer to, so they don't change what later bullets hit.
+     * The ship is hit if any asteroid it touched survived the bullets, or if it touches
+     * one of the new pieces, as in AsteroidField.checkCollisions.
+     */
+    private void commitHits() {
+        ArrayList<Bullet> bullets = ship.getBullets();
+        Arrays.fill(cursors, 0);
+        pieces.clear();
+        for (int b = 0; b < bullets.size(); b++) {
+            Shard owner = shards[ownerOf(bullets.get(b).getPosition().x)];
+            IntList hits = owner.bulletHits;
+            boolean used = false;
+            // Each shard found its bullets' hits in bullet order, as (bullet, shard, index) triples
+            for (int k = cursors[owner.index]; k < hits.size() && hits.get(k) == b; k += 3) {
+                cursors[owner.index] = k + 3;
+                Shard shard = shards[hits.get(k + 1)];
+                int a = hits.get(k + 2);
+                if (used || !shard.alive[a]) {
+                    continue;
+                }
+                shard.alive[a] = false;
+                splitAsteroid(shard.x[a], shard.y[a], shard.scale[a]);
+                Bullet bullet = bullets.get(b);
+                for (int i = 0; i < 60; i++) {
+                    bullet.update();
+                }
+                score += 10;
+                used = true;
+            }
+        }
+        
+        boolean shipHit = false;
+        for (Shard shard : shards) {
+            for (int k = 0; k < shard.shipHits.size(); k += 2) {
+                shipHit |= shards[shard.shipHits.get(k)].alive[shard.shipHits.get(k + 1)];
+            }
+        }
+        // Pieces split off this tick weren't there when the shards looked for hits
+        Point[] shipPoints = ship.getPoints();
+        for (int k = 0; k < pieces.size() && !shipHit; k += 2) {
+            Shard shard = shards[pieces.get(k)];
+            int a = pieces.get(k + 1);
+            shipHit = hitsShip(shard.geometry[a], shard.x[a], shard.y[a], shipPoints);
+        }
+        if (shipHit) {
+            shipHitCount++;
+            ship.reset();
+        }
+    }
+    
+    /**
+     * Checks whether any of the ship's points is inside an asteroid, with the same
+     * bounding-circle pre-test as AsteroidField.
+     * 
+     * @param shape the asteroid's shape
+     * @param px the x-coordinate of the asteroid
+     * @param py the y-coordinate of the asteroid
+     * @param shipPoints the ship's points
+     * @return true if they overlap
+     */
+    private boolean hitsShip(AsteroidShape shape, double px, double py, Point[] shipPoints) {
+        double distanceX = px + shape.getBoundsCenterX() - ship.getBoundsCenterX();
+        double distanceY = py + shape.getBoundsCenterY() - ship.getBoundsCenterY();
+        double reach = shape.getBoundingRadius() + ship.getBoundingRadius() + 1e-6;
+        if (distanceX * distanceX + distanceY * distanceY > reach * reach) {
+            return false;
+        }
+        for (Point p : shipPoints) {
+            if (shape.contains(px, py, p.x, p.y)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Creates the smaller asteroids for a destroyed asteroid at (px, py), the same way
+     * AsteroidField does, and gives each piece to the shard it lands in.
+     * The pieces are recorded in pieces.
+     * 
+     * @param px the x-coordinate where the asteroid was destroyed
+     * @param py the y-coordinate where the asteroid was destroyed
+     * @param scale the scale of the destroyed asteroid
+     */
+    private void splitAsteroid(double px, double py, double scale) {
+        double newScale = scale * 0.65;
+        if (newScale > 2.5) {
+            for (int i = 0; i < 2; i++) {
+                int template = random.nextInt(TEMPLATE_COUNT);
+                double angle = random.nextDouble() * 360;
+                double pieceX = px + Utilities.directionX(angle + (i * 180), 15);
+                double pieceY = py + Utilities.directionY(angle + (i * 180), 15);
+                int owner = ownerOf(pieceX);
+                int a = shards[owner].add(pieceX, pieceY,
+                        Utilities.directionX(angle, 2.1), Utilities.directionY(angle, 2.1),
+                        newScale, shapeCache.get(template, newScale, angle));
+                pieces.add(owner);
+                pieces.add(a);
+            }
+        }
+    }
+    
+    /**
+     * Returns which shard's strip an x-coordinate is in.
+     * 
+     * @param x the x-coordinate
+     * @return the index of the shard
+     */
+    private int ownerOf(double x) {
+        int index = (int)((x + WRAP_MARGIN) / stripWidth);
+        return Math.max(0, Math.min(shards.length - 1, index));
+    }
+    
+    /**
+     * Inner class for one strip of the playfield and the asteroids in it.
+     * Only its own worker writes to it during a phase; other shards only read
+     * its border lists and asteroid arrays while collecting ghosts.
+     */
+    private class Shard {
+        
+        private final int index;
+        private final double minX;
+        private final double maxX;
+        // Asteroids handed over by other shards, one single-producer queue per sending shard
+        private final List<ConcurrentLinkedQueue<Migrant>> inbound;
+        
+        private int count;
+        private double[] x;
+        private double[] y;
+        private double[] dx;
+        private double[] dy;
+        private double[] scale;
+        private AsteroidShape[] geometry;
+        private boolean[] alive;
+        
+        // Own asteroids within a ghost width of the left and right edges
+        private final IntList leftBorder;
+        private final IntList rightBorder;
+        
+        // Copies of the neighbours' border asteroids, and where each one really lives
+        private int ghostCount;
+        private double[] ghostX;
+        private double[] ghostY;
+        private double[] ghostDx;
+        private double[] ghostDy;
+        private AsteroidShape[] ghostGeometry;
+        private int[] ghostShard;
+        private int[] ghostIndex;
+        
+        private final SpatialGrid grid;
+        private final IntList candidates;
+        private final IntList bulletHits;
+        private final IntList shipHits;
+        
+        /**
+         * Constructs an empty shard for one strip.
+         * 
+         * @param index the position of the strip from the left
+         */
+        private Shard(int index) {
+            this.index = index;
+            this.minX = index * stripWidth - WRAP_MARGIN;
+            this.maxX = (index + 1) * stripWidth - WRAP_MARGIN;
+            this.inbound = new ArrayList<ConcurrentLinkedQueue<Migrant>>(shards.length);
+            for (int i = 0; i < shards.length; i++) {
+                inbound.add(new ConcurrentLinkedQueue<Migrant>());
+            }
+            this.x = new double[64];
+            this.y = new double[64];
+            this.dx = new double[64];
+            this.dy = new double[64];
+            this.scale = new double[64];
+            this.geometry = new AsteroidShape[64];
+            this.alive = new boolean[64];
+            this.leftBorder = new IntList(64);
+            this.rightBorder = new IntList(64);
+            this.ghostX = new double[64];
+            this.ghostY = new double[64];
+            this.ghostDx = new double[64];
+            this.ghostDy = new double[64];
+            this.ghostGeometry = new AsteroidShape[64];
+            this.ghostShard = new int[64];
+            this.ghostIndex = new int[64];
+            this.grid = new SpatialGrid(width, height, GRID_CELL_SIZE);
+            this.candidates = new IntList(64);
+            this.bulletHits = new IntList(16);
+            this.shipHits = new IntList(8);
+        }
+        
+        /**
+         * Runs one phase of a tick on this shard.
+         * 
+         * @param current the phase to run
+         */
+        private void run(int current) {
+            if (current == MOVE) {
+                move();
+            } else if (current == ARRIVE) {
+                arrive();
+            } else if (current == COLLIDE) {
+                collectGhosts();
+                rebuildGrid();
+                findHits();
+            }
+        }
+        
+        /**
+         * Appends an asteroid to this shard.
+         * 
+         * @param px the x-coordinate
+         * @param py the y-coordinate
+         * @param stepX the distance moved along the x-axis each tick
+         * @param stepY the distance moved along the y-axis each tick
+         * @param size the scale of the asteroid
+         * @param shape the asteroid's geometry
+         * @return the index of the new asteroid
+         */
+        private int add(double px, double py, double stepX, double stepY, double size, AsteroidShape shape) {
+            if (count == x.length) {
+                int capacity = count * 2;
+                x = Arrays.copyOf(x, capacity);
+                y = Arrays.copyOf(y, capacity);
+                dx = Arrays.copyOf(dx, capacity);
+                dy = Arrays.copyOf(dy, capacity);
+                scale = Arrays.copyOf(scale, capacity);
+                geometry = Arrays.copyOf(geometry, capacity);
+                alive = Arrays.copyOf(alive, capacity);
+            }
+            int a = count++;
+            x[a] = px;
+            y[a] = py;
+            dx[a] = stepX;
+            dy[a] = stepY;
+            scale[a] = size;
+            geometry[a] = shape;
+            alive[a] = true;
+            return a;
+        }
+        
+        /**
+         * Moves the last asteroid into slot a, dropping whatever was there.
+         * 
+         * @param a the slot to fill
+         */
+        private void removeAt(int a) {
+            int last = --count;
+            x[a] = x[last];
+            y[a] = y[last];
+            dx[a] = dx[last];
+            dy[a] = dy[last];
+            scale[a] = scale[last];
+            geometry[a] = geometry[last];
+            alive[a] = alive[last];
+            geometry[last] = null;
+        }
+        
+        /**
+         * Drops destroyed asteroids, moves the rest and hands the ones that left the strip
+         * to the shard they moved into. Asteroids never cross more than one strip per tick,
+         * but the queue doesn't rely on it.
+         */
+        private void move() {
+            leftBorder.clear();
+            rightBorder.clear();
+            int a = 0;
+            while (a < count) {
+                if (!alive[a]) {
+                    // The last asteroid takes this slot and is handled next
+                    removeAt(a);
+                    continue;
+                }
+                x[a] = Utilities.wrapX(x[a] + dx[a], width);
+                y[a] = Utilities.wrapY(y[a] + dy[a], height);
+                int owner = ownerOf(x[a]);
+                if (owner != index) {
+                    shards[owner].inbound.get(index).offer(new Migrant(x[a], y[a], dx[a], dy[a], scale[a], geometry[a]));
+                    removeAt(a);
+                    continue;
+                }
+                classify(a);
+                a++;
+            }
+        }
+        
+        /**
+         * Takes in the asteroids other shards handed over, in order of the sending shard.
+         */
+        private void arrive() {
+            for (ConcurrentLinkedQueue<Migrant> queue : inbound) {
+                Migrant m;
+                while ((m = queue.poll()) != null) {
+                    classify(add(m.x, m.y, m.dx, m.dy, m.scale, m.geometry));
+                }
+            }
+        }
+        
+        /**
+         * Notes an asteroid as a ghost for a neighbour if it is close to one of the edges.
+         * 
+         * @param a the index of the asteroid
+         */
+        private void classify(int a) {
+            if (x[a] < minX + GHOST_WIDTH) {
+                leftBorder.add(a);
+            }
+            if (x[a] >= maxX - GHOST_WIDTH) {
+                rightBorder.add(a);
+            }
+        }
+        
+        /**
+         * Copies the border asteroids of the neighbouring strips. Strips at the two wrap
+         * edges have no neighbour there, just like the single field doesn't test across the wrap.
+         */
+        private void collectGhosts() {
+            ghostCount = 0;
+            if (index > 0) {
+                Shard left = shards[index - 1];
+                copyGhosts(left, left.rightBorder);
+            }
+            if (index < shards.length - 1) {
+                Shard right = shards[index + 1];
+                copyGhosts(right, right.leftBorder);
+            }
+        }
+        
+        /**
+         * Copies the live asteroids from a neighbour's border list as ghosts.
+         * 
+         * @param from the neighbouring shard
+         * @param border the neighbour's list of asteroids near this shard
+         */
+        private void copyGhosts(Shard from, IntList border) {
+            for (int k = 0; k < border.size(); k++) {
+                int a = border.get(k);
+                if (!from.alive[a]) {
+                    continue;
+                }
+                if (ghostCount == ghostX.length) {
+                    int capacity = ghostCount * 2;
+                    ghostX = Arrays.copyOf(ghostX, capacity);
+                    ghostY = Arrays.copyOf(ghostY, capacity);
+                    ghostDx = Arrays.copyOf(ghostDx, capacity);
+                    ghostDy = Arrays.copyOf(ghostDy, capacity);
+                    ghostGeometry = Arrays.copyOf(ghostGeometry, capacity);
+                    ghostShard = Arrays.copyOf(ghostShard, capacity);
+                    ghostIndex = Arrays.copyOf(ghostIndex, capacity);
+                }
+                int g = ghostCount++;
+                ghostX[g] = from.x[a];
+                ghostY[g] = from.y[a];
+                ghostDx[g] = from.dx[a];
+                ghostDy[g] = from.dy[a];
+                ghostGeometry[g] = from.geometry[a];
+                ghostShard[g] = from.index;
+                ghostIndex[g] = a;
+            }
+        }
+        
+        /**
+         * Puts every own asteroid and every ghost in the grid. Ghosts get the ids after
+         * the own asteroids.
+         */
+        private void rebuildGrid() {
+            grid.clear();
+            for (int a = 0; a < count; a++) {
+                AsteroidShape shape = geometry[a];
+                grid.insert(a, x[a] + shape.getMinX(), y[a] + shape.getMinY(),
+                        x[a] + shape.getMaxX(), y[a] + shape.getMaxY());
+            }
+            for (int g = 0; g < ghostCount; g++) {
+                AsteroidShape shape = ghostGeometry[g];
+                grid.insert(count + g, ghostX[g] + shape.getMinX(), ghostY[g] + shape.getMinY(),
+                        ghostX[g] + shape.getMaxX(), ghostY[g] + shape.getMaxY());
+            }
+        }
+        
+        /**
+         * Finds what the bullets in this strip hit, and what the ship hit if it is in this strip.
+         * Only reads the ship, its bullets and the other shards.
+         */
+        private void findHits() {
+            bulletHits.clear();
+            shipHits.clear();
+            ArrayList<Bullet> bullets = ship.getBullets();
+            for (int b = 0; b < bullets.size(); b++) {
+                Bullet bullet = bullets.get(b);
+                Point p = bullet.getPosition();
+                if (ownerOf(p.x) == index) {
+                    findBulletHits(b, bullet.getPreviousX(), bullet.getPreviousY(), p.x, p.y);
+                }
+            }
+            if (ownerOf(ship.getBoundsCenterX()) == index) {
+                findShipHits();
+            }
+        }
+        
+        /**
+         * Sweeps one bullet's path from this tick against the asteroids and ghosts around it,
+         * adding its hits in the order the bullet reaches them.
+         * 
+         * @param b the index of the bullet
+         * @param startX the x-coordinate the bullet started the tick at
+         * @param startY the y-coordinate the bullet started the tick at
+         * @param endX the x-coordinate the bullet is at now
+         * @param endY the y-coordinate the bullet is at now
+         */
+        private void findBulletHits(int b, double startX, double startY, double endX, double endY) {
+            candidates.clear();
+            grid.query(Math.min(startX, endX), Math.min(startY, endY),
+                    Math.max(startX, endX), Math.max(startY, endY), candidates);
+            int first = bulletHits.size();
+            for (int k = 0; k < candidates.size(); k++) {
+                int id = candidates.get(k);
+                double t = sweep(id, startX, startY, endX, endY);
+                if (t < 0) {
+                    continue;
+                }
+                // Insertion by sweep distance; a bullet rarely hits more than one asteroid a tick
+                int shard = shardOf(id);
+                int a = indexOf(id);
+                bulletHits.add(b);
+                bulletHits.add(shard);
+                bulletHits.add(a);
+                int at = bulletHits.size() - 3;
+                while (at > first && comesBefore(shard, a, t, bulletHits.get(at - 2), bulletHits.get(at - 1),
+                        sweepOf(bulletHits.get(at - 2), bulletHits.get(at - 1), startX, startY, endX, endY))) {
+                    bulletHits.set(at + 1, bulletHits.get(at - 2));
+                    bulletHits.set(at + 2, bulletHits.get(at - 1));
+                    at -= 3;
+                }
+                bulletHits.set(at + 1, shard);
+                bulletHits.set(at + 2, a);
+            }
+        }
+        
+        /**
+         * Finds every asteroid or ghost the ship's points are inside, with the same
+         * bounding-circle pre-test as AsteroidField.
+         */
+        private void findShipHits() {
+            Point[] shipPoints = ship.getPoints();
+            candidates.clear();
+            grid.query(ship.getMinX(), ship.getMinY(), ship.getMaxX(), ship.getMaxY(), candidates);
+            for (int k = 0; k < candidates.size(); k++) {
+                int id = candidates.get(k);
+                boolean own = id < count;
+                double px = own ? x[id] : ghostX[id - count];
+                double py = own ? y[id] : ghostY[id - count];
+                AsteroidShape shape = own ? geometry[id] : ghostGeometry[id - count];
+                if (own && !alive[id]) {
+                    continue;
+                }
+                if (hitsShip(shape, px, py, shipPoints)) {
+                    shipHits.add(shardOf(id));
+                    shipHits.add(indexOf(id));
+                }
+            }
+        }
+        
+        /**
+         * Sweeps a bullet's path against an own asteroid or a ghost, relative to its movement.
+         * 
+         * @param id the grid id of the asteroid or ghost
+         * @param startX the x-coordinate the bullet started the tick at
+         * @param startY the y-coordinate the bullet started the tick at
+         * @param endX the x-coordinate the bullet is at now
+         * @param endY the y-coordinate the bullet is at now
+         * @return how far along the path the bullet first touches it, or -1 if it doesn't
+         */
+        private double sweep(int id, double startX, double startY, double endX, double endY) {
+            if (id < count) {
+                if (!alive[id]) {
+                    return -1;
+                }
+                return geometry[id].sweep(x[id], y[id], startX + dx[id], startY + dy[id], endX, endY);
+            }
+            int g = id - count;
+            return ghostGeometry[g].sweep(ghostX[g], ghostY[g], startX + ghostDx[g], startY + ghostDy[g], endX, endY);
+        }
+        
+        /**
+         * Sweeps a bullet's path against an asteroid given by its owning shard and index.
+         * 
+         * @param shard the index of the shard that owns the asteroid
+         * @param a the index of the asteroid in that shard
+         * @param startX the x-coordinate the bullet started the tick at
+         * @param startY the y-coordinate the bullet started the tick at
+         * @param endX the x-coordinate the bullet is at now
+         * @param endY the y-coordinate the bullet is at now
+         * @return how far along the path the bullet first touches it, or -1 if it doesn't
+         */
+        private double sweepOf(int shard, int a, double startX, double startY, double endX, double endY) {
+            Shard owner = shards[shard];
+            return owner.geometry[a].sweep(owner.x[a], owner.y[a],
+                    startX + owner.dx[a], startY + owner.dy[a], endX, endY);
+        }
+        
+        /**
+         * Returns whether one hit comes before another along a bullet's path. Hits at the same
+         * distance, e.g. when the bullet starts inside both asteroids, are ordered by position,
+         * since the order asteroids sit in the shards changes with the shard count.
+         * 
+         * @param shard the shard that owns the first asteroid
+         * @param a the index of the first asteroid
+         * @param t how far along the path the first asteroid is hit
+         * @param otherShard the shard that owns the second asteroid
+         * @param other the index of the second asteroid
+         * @param otherT how far along the path the second asteroid is hit
+         * @return true if the first hit comes first
+         */
+        private boolean comesBefore(int shard, int a, double t, int otherShard, int other, double otherT) {
+            if (t != otherT) {
+                return t < otherT;
+            }
+            double ax = shards[shard].x[a];
+            double bx = shards[otherShard].x[other];
+            if (ax != bx) {
+                return ax < bx;
+            }
+            return shards[shard].y[a] < shards[otherShard].y[other];
+        }
+        
+        /**
+         * Returns the shard that owns a grid id.
+         * 
+         * @param id an own asteroid index or a ghost id
+         * @return the index of the owning shard
+         */
+        private int shardOf(int id) {
+            return id < count ? index : ghostShard[id - count];
+        }
+        
+        /**
+         * Returns the index of a grid id in its owning shard.
+         * 
+         * @param id an own asteroid index or a ghost id
+         * @return the index of the asteroid in its owning shard
+         */
+        private int indexOf(int id) {
+            return id < count ? id : ghostIndex[id - count];
+        }
+    }
+    
+    /**
+     * Inner class for an asteroid on its way from one shard to another.
+     */
+    private static class Migrant {
+        
+        private final double x;
+        private final double y;
+        private final double dx;
+        private final double dy;
+        private final double scale;
+        private final AsteroidShape geometry;
+        
+        /**
+         * Constructs a new Migrant.
+         * 
+         * @param x the x-coordinate
+         * @param y the y-coordinate
+         * @param dx the distance moved along the x-axis each tick
+         * @param dy the distance moved along the y-axis each tick
+         * @param scale the scale of the asteroid
+         * @param geometry the asteroid's geometry
+         */
+        private Migrant(double x, double y, double dx, double dy, double scale, AsteroidShape geometry) {
+            this.x = x;
+            this.y = y;
+            this.dx = dx;
+            this.dy = dy;
+            this.scale = scale;
+            this.geometry = geometry;
+        }
+    }
+    
+    /**
+     * Returns the ship.
+     * 
+     * @return the ship
+     */
+    public Ship getShip() {
+        return ship;
+    }
+    
+    /**
+     * Returns this world's cache of asteroid geometry.
+     * 
+     * @return the shape cache
+     */
+    public ShapeCache getShapeCache() {
+        return shapeCache;
+    }
+    
+    /**
+     * Returns the number of shards.
+     * 
+     * @return the shard count
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+    
+    /**
+     * Returns the number of ticks run so far.
+     * 
+     * @return the frame number
+     */
+    public int getFrame() {
+        return frame;
+    }
+    
+    /**
+     * Returns the current score.
+     * 
+     * @return the score
+     */
+    public int getScore() {
+        return score;
+    }
+    
+    /**
+     * Returns how many times the ship has been hit.
+     * 
+     * @return the number of ship hits
+     */
+    public int getShipHitCount() {
+        return shipHitCount;
+    }
+    
+    /**
+     * Returns the number of live asteroids across all shards.
+     * 
+     * @return the asteroid count
+     */
+    public int getAsteroidCount() {
+        int total = 0;
+        for (Shard shard : shards) {
+            for (int a = 0; a < shard.count; a++) {
+                if (shard.alive[a]) {
+                    total++;
+                }
+            }
+        }
+        return total;
+    }
+    
+    /**
+     * Returns a hash of every live asteroid that doesn't depend on which shard holds it
+     * or in what order, so runs with different shard counts can be compared.
+     * 
+     * @return the checksum
+     */
+    public long checksum() {
+        long sum = 0;
+        for (Shard shard : shards) {
+            for (int a = 0; a < shard.count; a++) {
+                if (shard.alive[a]) {
+                    long hash = Double.doubleToLongBits(shard.x[a]);
+                    hash = hash * 31 + Double.doubleToLongBits(shard.y[a]);
+                    hash = hash * 31 + Double.doubleToLongBits(shard.scale[a]);
+                    sum += hash * 0x9E3779B97F4A7C15L;
+                }
+            }
+        }
+        return sum * 31 + score;
+    }
+    
+    /**
+     * Ticks a large field with a spinning, shooting ship for 1, 2, 4, ... shards up to 8 or twice
+     * the number of processors, and prints the ticks per second for each shard count.
+     * 
+     * @param args optionally the number of asteroids (default 1000000), ticks (default 200),
+     *             and the playfield width and height (default 8000 by 6000)
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int asteroids = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int width = args.length > 2 ? Integer.parseInt(args[2]) : 8000;
+        int height = args.length > 3 ? Integer.parseInt(args[3]) : 6000;
+        int maxShards = Math.max(8, 2 * Runtime.getRuntime().availableProcessors());
+        
+        System.out.println(asteroids + " asteroids, " + width + "x" + height + ", "
+                + Runtime.getRuntime().availableProcessors() + " processors");
+        for (int shardCount = 1; shardCount <= maxShards; shardCount *= 2) {
+            if (shardCount > 1 && (width + 2 * WRAP_MARGIN) / shardCount < GHOST_WIDTH) {
+                break;
+            }
+            ShardedWorld world = new ShardedWorld(width, height, shardCount, 1);
+            world.spawnAsteroids(asteroids);
+            world.getShip().setInput(Ship.LEFT | Ship.SHOOT);
+            long start = System.nanoTime();
+            for (int i = 0; i < ticks; i++) {
+                world.update();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            world.close();
+            System.out.printf("%3d shards: %8.1f ticks/sec, score %d, asteroids %d, checksum %x%n", shardCount,
+                    ticks / seconds, world.getScore(), world.getAsteroidCount(), world.checksum());
+        }
+    }
+}
@@ -2,16 +2,20 @@ package game;
 
 import java.awt.Color;
 import java.awt.Graphics;
-import java.awt.event.KeyEvent;
-import java.awt.event.KeyListener;
 import java.util.ArrayList;
 
 /**
  * This class represents a player-controlled spaceship in our Asteroids game.
  * The ship can move forward, rotate left/right, and shoot bullet.
  * Uses momentum-based physics with friction for realistic and easy-to-use movement.
+ * The controls are plain flags, set from the keyboard or from a script.
  */
-public class Ship extends Polygon implements Updatable, Drawable, KeyListener {
+public class Ship extends Polygon implements Updatable, Drawable {
+    
+    public static final int FORWARD = 1;
+    public static final int LEFT = 2;
+    public static final int RIGHT = 4;
+    public static final int SHOOT = 8;
     
     private double velocityX;
     private double velocityY;
@@ -26,9 +30,14 @@ public class Ship extends Polygon implements Updatable, Drawable, KeyListener {
     private boolean shooting;
     
     private int shootCooldown;
+    // The playfield the ship wraps around and respawns in
+    private final int width;
+    private final int height;
     private static final int SHOOT_DELAY = 15;
+    private static final int BULLET_POOL_SIZE = 16;
     
     private ArrayList<Bullet> bullets;
+    private Pool<Bullet> bulletPool;
     
     private static Point[] shipShape = {
         new Point(0, -10),
@@ -42,9 +51,13 @@ public class Ship extends Polygon implements Updatable, Drawable, KeyListener {
      * The ship initially points upward.
      * 
      * @param startPosition the initial position of the ship
+     * @param width the width of the playfield
+     * @param height the height of the playfield
      */
-    public Ship(Point startPosition) {
-        super(shipShape, startPosition, 0);
+    public Ship(Point startPosition, int width, int height) {
+        super(copyShape(), startPosition, 0);
+        this.width = width;
+        this.height = height;
         velocityX = 0;
         velocityY = 0;
         acceleration = 0.15;
@@ -57,6 +70,21 @@ public class Ship extends Polygon implements Updatable, Drawable, KeyListener {
         shooting = false;
         shootCooldown = 0;
         bullets = new ArrayList<Bullet>();
+        bulletPool = new Pool<Bullet>(BULLET_POOL_SIZE, () -> new Bullet(new Point(0, 0), 0, 0));
+    }
+    
+    /**
+     * Returns a copy of the ship's outline for a new ship. Polygon moves the points it is
+     * given, and ships in different worlds may be built at the same time on different threads.
+     * 
+     * @return the outline points
+     */
+    private static Point[] copyShape() {
+        Point[] shape = new Point[shipShape.length];
+        for (int i = 0; i < shape.length; i++) {
+            shape[i] = shipShape[i].clone();
+        }
+        return shape;
     }
     
     /**
@@ -65,16 +93,17 @@ public class Ship extends Polygon implements Updatable, Drawable, KeyListener {
      */
     @Override
     public void update() {
+        savePosition();
         if (rotatingLeft) {
-            rotation -= rotationSpeed;
+            setRotation(rotation - rotationSpeed);
         }
         if (rotatingRight) {
-            rotation += rotationSpeed;
+            setRotation(rotation + rotationSpeed);
         }
         if (movingForward) {
             double angle = rotation - 90;
-            velocityX += acceleration * Math.cos(Math.toRadians(angle));
-            velocityY += acceleration * Math.sin(Math.toRadians(angle));
+            velocityX += acceleration * FastTrig.cos(angle);
+            velocityY += acceleration * FastTrig.sin(angle);
         }
         velocityX *= friction;
         velocityY *= friction;
@@ -88,7 +117,7 @@ public class Ship extends Polygon implements Updatable, Drawable, KeyListener {
         position.setX(position.getX() + velocityX);
         position.setY(position.getY() + velocityY);
         
-        Utilities.wrapAround(position);
+        Utilities.wrapAround(position, width, height);
         
         if (shooting && shootCooldown == 0) {
             shoot();
@@ -102,7 +131,14 @@ public class Ship extends Polygon implements Updatable, Drawable, KeyListener {
         // Lambda expression that uses forEach to update bullets
         bullets.forEach(bullet -> bullet.update());
         // Lambda expression that uses removeIf to remove dead/inactive. bullets
-        bullets.removeIf(bullet -> bullet.isDead());
+        // and hand them back to the pool
+        bullets.removeIf(bullet -> {
+            if (bullet.isDead()) {
+                bulletPool.release(bullet);
+                return true;
+            }
+            return false;
+        });
     }
     
     /**
@@ -111,24 +147,48 @@ public class Ship extends Polygon implements Updatable, Drawable, KeyListener {
      */
     @Override
     public void draw(Graphics brush) {
+        draw(brush, 1);
+    }
+    
+    /**
+     * Draws the ship and its bullets between their previous and current positions.
+     * @param brush the Graphics object used for drawing
+     * @param alpha how far between the last tick and the next one
+     */
+    @Override
+    public void draw(Graphics brush, double alpha) {
         brush.setColor(Color.white);
         
+        double offsetX = interpolateX(alpha) - position.getX();
+        double offsetY = interpolateY(alpha) - position.getY();
         Point[] rotatedPoints = getPoints();
         for(int i = 0; i < rotatedPoints.length-1; i++) {
             brush.drawLine(
-                (int)(rotatedPoints[i].getX()), 
-                (int)(rotatedPoints[i].getY()),
-                (int)(rotatedPoints[i+1].getX()),
-                (int)(rotatedPoints[i+1].getY())); 
+                (int)(rotatedPoints[i].getX() + offsetX), 
+                (int)(rotatedPoints[i].getY() + offsetY),
+                (int)(rotatedPoints[i+1].getX() + offsetX),
+                (int)(rotatedPoints[i+1].getY() + offsetY)); 
         }
         brush.drawLine(
-            (int)(rotatedPoints[rotatedPoints.length-1].getX()), 
-            (int)(rotatedPoints[rotatedPoints.length-1].getY()),
-            (int)(rotatedPoints[0].getX()),
-            (int)(rotatedPoints[0].getY()));
+            (int)(rotatedPoints[rotatedPoints.length-1].getX() + offsetX), 
+            (int)(rotatedPoints[rotatedPoints.length-1].getY() + offsetY),
+            (int)(rotatedPoints[0].getX() + offsetX),
+            (int)(rotatedPoints[0].getY() + offsetY));
         
         for (Bullet bullet : bullets) {
-            bullet.draw(brush);
+            bullet.draw(brush, alpha);
+        }
+    }
+    
+    /**
+     * Adds the ship and its bullets between their previous and current positions to a batch.
+     * @param batch the batch collecting this frame's drawing
+     * @param alpha how far between the last tick and the next one
+     */
+    public void draw(RenderBatch batch, double alpha) {
+        batch.addOutline(getPoints(), interpolateX(alpha) - position.getX(), interpolateY(alpha) - position.getY());
+        for (Bullet bullet : bullets) {
+            bullet.draw(batch, alpha);
         }
     }
 
@@ -140,55 +200,68 @@ public class Ship extends Polygon implements Updatable, Drawable, KeyListener {
         double bulletSpeed = 8;
         double angle = rotation - 90;
         
-        Point bulletStart = new Point(
-            position.getX() + 12 * Math.cos(Math.toRadians(angle)),
-            position.getY() + 12 * Math.sin(Math.toRadians(angle))
+        Bullet bullet = bulletPool.acquire();
+        bullet.reset(
+            position.getX() + 12 * FastTrig.cos(angle),
+            position.getY() + 12 * FastTrig.sin(angle),
+            angle,
+            bulletSpeed
         );
-        
-        Bullet bullet = new Bullet(bulletStart, angle, bulletSpeed);
         bullets.add(bullet);
     }
     
     /**
-     * Handles key press events for ship controls.
-     * @param e the KeyEvent
+     * Turns one or more controls on or off.
+     * 
+     * @param controls any combination of FORWARD, LEFT, RIGHT and SHOOT
+     * @param on true to turn the controls on, false to turn them off
      */
-    @Override
-    public void keyPressed(KeyEvent e) {
-        if (e.getKeyCode() == KeyEvent.VK_UP) {
-            movingForward = true;
-        } else if (e.getKeyCode() == KeyEvent.VK_LEFT) {
-            rotatingLeft = true;
-        } else if (e.getKeyCode() == KeyEvent.VK_RIGHT) {
-            rotatingRight = true;
-        } else if (e.getKeyCode() == KeyEvent.VK_SPACE) {
-            shooting = true;
+    public void setControl(int controls, boolean on) {
+        if ((controls & FORWARD) != 0) {
+            movingForward = on;
+        }
+        if ((controls & LEFT) != 0) {
+            rotatingLeft = on;
+        }
+        if ((controls & RIGHT) != 0) {
+            rotatingRight = on;
+        }
+        if ((controls & SHOOT) != 0) {
+            shooting = on;
         }
     }
     
     /**
-     * Handles key release events for ship controls.
-     * @param e the KeyEvent
+     * Sets all four controls at once, e.g. from a scripted input.
+     * 
+     * @param controls the controls that are on, any combination of FORWARD, LEFT, RIGHT and SHOOT
      */
-    @Override
-    public void keyReleased(KeyEvent e) {
-        if (e.getKeyCode() == KeyEvent.VK_UP) {
-            movingForward = false;
-        } else if (e.getKeyCode() == KeyEvent.VK_LEFT) {
-            rotatingLeft = false;
-        } else if (e.getKeyCode() == KeyEvent.VK_RIGHT) {
-            rotatingRight = false;
-        } else if (e.getKeyCode() == KeyEvent.VK_SPACE) {
-            shooting = false;
-        }
+    public void setInput(int controls) {
+        setControl(FORWARD | LEFT | RIGHT | SHOOT, false);
+        setControl(controls, true);
     }
     
     /**
-     * Required by KeyListener interface - left empty as per assignment instructions.
-     * @param e the KeyEvent
+     * Returns the controls that are currently on.
+     * 
+     * @return any combination of FORWARD, LEFT, RIGHT and SHOOT
      */
-    @Override
-    public void keyTyped(KeyEvent e) {}
+    public int getInput() {
+        int controls = 0;
+        if (movingForward) {
+            controls |= FORWARD;
+        }
+        if (rotatingLeft) {
+            controls |= LEFT;
+        }
+        if (rotatingRight) {
+            controls |= RIGHT;
+        }
+        if (shooting) {
+            controls |= SHOOT;
+        }
+        return controls;
+    }
     
     /**
      * Returns the list of bullets fired by this ship(can fire whilst others are active).
@@ -199,14 +272,27 @@ public class Ship extends Polygon implements Updatable, Drawable, KeyListener {
         return bullets;
     }
     
+    /**
+     * Returns the pool bullets are recycled through, e.g. to read its hit/miss counters.
+     * 
+     * @return the bullet pool
+     */
+    public Pool<Bullet> getBulletPool() {
+        return bulletPool;
+    }
+    
     /**
      * Resets the ship to its initial state at center screen.
      */
     public void reset() {
-        position = new Point(Asteroids.width / 2, Asteroids.height / 2);
+        setPosition(new Point(width / 2, height / 2));
         velocityX = 0;
         velocityY = 0;
-        rotation = 0; 
+        setRotation(0);
+        savePosition();
+        for (Bullet bullet : bullets) {
+            bulletPool.release(bullet);
+        }
         bullets.clear();
     }
 }
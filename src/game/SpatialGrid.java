@@ -0,0 +1,188 @@
+package game;
+
+import java.util.Arrays;
+
+/**
+ * This class is a uniform grid used as a broad-phase spatial index.
+ * The playfield is split into square cells and every item is stored in each cell
+ * its bounding box overlaps, so a query only has to look at the items in nearby cells.
+ * Cell coordinates wrap around the screen edges the same way objects do.
+ * Items are int ids (e.g. asteroid indices) kept in primitive arrays per cell.
+ * An item that spans several cells is reported once per query: each querying thread
+ * stamps the items it has already reported with the number of its current query,
+ * so nothing has to be searched or cleared between queries.
+ */
+public class SpatialGrid {
+    
+    private final int cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[][] cells;
+    private final int[] cellCounts;
+    // Queries may run on several threads at once, e.g. the parallel bullet checks
+    private final ThreadLocal<Stamps> stamps = ThreadLocal.withInitial(Stamps::new);
+    private int itemLimit;
+    
+    /**
+     * Constructs a new empty grid covering the given area.
+     * 
+     * @param width the width of the area in pixels
+     * @param height the height of the area in pixels
+     * @param cellSize the side length of one cell in pixels
+     */
+    public SpatialGrid(int width, int height, int cellSize) {
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (width + cellSize - 1) / cellSize);
+        this.rows = Math.max(1, (height + cellSize - 1) / cellSize);
+        this.cells = new int[columns * rows][];
+        this.cellCounts = new int[columns * rows];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new int[8];
+        }
+    }
+    
+    /**
+     * Removes every item from the grid, keeping the cell storage for reuse.
+     */
+    public void clear() {
+        Arrays.fill(cellCounts, 0);
+        itemLimit = 0;
+    }
+    
+    /**
+     * Adds an item to every cell overlapped by the given bounding box.
+     * 
+     * @param item the id of the item to add
+     * @param minX the left edge of the bounding box
+     * @param minY the top edge of the bounding box
+     * @param maxX the right edge of the bounding box
+     * @param maxY the bottom edge of the bounding box
+     */
+    public void insert(int item, double minX, double minY, double maxX, double maxY) {
+        int startColumn = cellX(minX);
+        int startRow = cellY(minY);
+        int spanX = span(minX, maxX, columns);
+        int spanY = span(minY, maxY, rows);
+        itemLimit = Math.max(itemLimit, item + 1);
+        for (int j = 0; j < spanY; j++) {
+            int row = (startRow + j) % rows;
+            for (int i = 0; i < spanX; i++) {
+                int cell = row * columns + (startColumn + i) % columns;
+                if (cellCounts[cell] == cells[cell].length) {
+                    cells[cell] = Arrays.copyOf(cells[cell], cellCounts[cell] * 2);
+                }
+                cells[cell][cellCounts[cell]++] = item;
+            }
+        }
+    }
+    
+    /**
+     * Collects the items stored in the cell containing the given point.
+     * Items come out in the order they were inserted.
+     * 
+     * @param x the x-coordinate of the point
+     * @param y the y-coordinate of the point
+     * @param out the list the candidates are added to
+     */
+    public void query(double x, double y, IntList out) {
+        int cell = cellY(y) * columns + cellX(x);
+        int[] items = cells[cell];
+        for (int k = 0; k < cellCounts[cell]; k++) {
+            out.add(items[k]);
+        }
+    }
+    
+    /**
+     * Collects the items stored in any cell overlapped by the given bounding box.
+     * Each candidate is added only once even if it spans several cells.
+     * 
+     * @param minX the left edge of the bounding box
+     * @param minY the top edge of the bounding box
+     * @param maxX the right edge of the bounding box
+     * @param maxY the bottom edge of the bounding box
+     * @param out the list the candidates are added to
+     */
+    public void query(double minX, double minY, double maxX, double maxY, IntList out) {
+        int startColumn = cellX(minX);
+        int startRow = cellY(minY);
+        int spanX = span(minX, maxX, columns);
+        int spanY = span(minY, maxY, rows);
+        Stamps seen = stamps.get();
+        int stamp = seen.next(itemLimit);
+        int[] marks = seen.marks;
+        for (int j = 0; j < spanY; j++) {
+            int row = (startRow + j) % rows;
+            for (int i = 0; i < spanX; i++) {
+                int cell = row * columns + (startColumn + i) % columns;
+                int[] items = cells[cell];
+                for (int k = 0; k < cellCounts[cell]; k++) {
+                    int item = items[k];
+                    if (marks[item] != stamp) {
+                        marks[item] = stamp;
+                        out.add(item);
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Inner class for one thread's record of which items its current query has reported.
+     */
+    private static class Stamps {
+        
+        private int[] marks = new int[64];
+        private int stamp;
+        
+        /**
+         * Starts a new query, making sure every item id has a mark.
+         * 
+         * @param itemLimit one more than the largest item id in the grid
+         * @return the stamp that marks items reported by the new query
+         */
+        private int next(int itemLimit) {
+            if (marks.length < itemLimit) {
+                marks = Arrays.copyOf(marks, Math.max(itemLimit, marks.length * 2));
+            }
+            if (++stamp == 0) {
+                // After 2^32 queries old marks could match again, so start over
+                Arrays.fill(marks, 0);
+                stamp = 1;
+            }
+            return stamp;
+        }
+    }
+    
+    /**
+     * Returns the wrapped column index of an x-coordinate.
+     * 
+     * @param x the x-coordinate
+     * @return the column index
+     */
+    private int cellX(double x) {
+        return Math.floorMod((int)Math.floor(x / cellSize), columns);
+    }
+    
+    /**
+     * Returns the wrapped row index of a y-coordinate.
+     * 
+     * @param y the y-coordinate
+     * @return the row index
+     */
+    private int cellY(double y) {
+        return Math.floorMod((int)Math.floor(y / cellSize), rows);
+    }
+    
+    /**
+     * Returns how many cells a range covers along one axis, capped at the axis length.
+     * 
+     * @param min the start of the range
+     * @param max the end of the range
+     * @param cellCount the number of cells along the axis
+     * @return the number of cells covered
+     */
+    private int span(double min, double max, int cellCount) {
+        int span = (int)Math.floor(max / cellSize) - (int)Math.floor(min / cellSize) + 1;
+        return Math.min(span, cellCount);
+    }
+}
@@ -0,0 +1,30 @@
+package game;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one destroyed asteroid breaking into smaller ones.
+ */
+@Name("game.AsteroidSplit")
+@Label("Asteroid Split")
+@Category("Asteroids")
+@Description("A destroyed asteroid breaking into smaller pieces")
+@StackTrace(false)
+class SplitEvent extends jdk.jfr.Event {
+    
+    @Label("Frame")
+    int frame;
+    
+    @Label("Scale")
+    double scale;
+    
+    @Label("Pieces")
+    int pieces;
+    
+    @Label("Asteroids")
+    int asteroids;
+}
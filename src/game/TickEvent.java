@@ -0,0 +1,31 @@
+package game;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one tick of the game loop, so stalls in a recording
+ * can be lined up with GC pauses and JIT activity.
+ */
+@Name("game.Tick")
+@Label("Tick")
+@Category("Asteroids")
+@Description("One fixed-step update of the world")
+@StackTrace(false)
+class TickEvent extends jdk.jfr.Event {
+    
+    @Label("Frame")
+    int frame;
+    
+    @Label("Asteroids")
+    int asteroids;
+    
+    @Label("Bullets")
+    int bullets;
+    
+    @Label("Particles")
+    int particles;
+}
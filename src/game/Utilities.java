@@ -6,6 +6,8 @@ package game;
  * collision detection, and screen wrapping.
  */
 public class Utilities {
+    
+    private static final double MAX_INTERPOLATION = 50;
 
     /**
      * Updates the position by adding velocity components.
@@ -33,22 +35,58 @@ public class Utilities {
      */
     public static Point updatePosition(Point position, double angle, double velocity) {
         Point newPos = new Point(0,0);
-        newPos.setX(position.getX()+velocity*Math.cos(Math.toRadians(angle)));
-        newPos.setY(position.getY()+velocity*Math.sin(Math.toRadians(angle)));
+        newPos.setX(position.getX()+velocity*FastTrig.cos(angle));
+        newPos.setY(position.getY()+velocity*FastTrig.sin(angle));
         return newPos;
     }
     
     /**
-     * Scales an array of points by a multiplier.
+     * Moves a point in place by the given offsets, without allocating a new point.
+     * 
+     * @param position the point to move
+     * @param dx the horizontal distance to move
+     * @param dy the vertical distance to move
+     */
+    public static void movePoint(Point position, double dx, double dy) {
+        position.x += dx;
+        position.y += dy;
+    }
+    
+    /**
+     * Returns the horizontal part of a movement in the given direction.
+     * Objects that always move the same way can compute this once and
+     * pass it to movePoint every frame instead of redoing the trig.
+     * 
+     * @param angle the direction of movement in degrees
+     * @param velocity the speed of movement
+     * @return the horizontal distance moved per frame
+     */
+    public static double directionX(double angle, double velocity) {
+        return velocity*FastTrig.cos(angle);
+    }
+    
+    /**
+     * Returns the vertical part of a movement in the given direction.
+     * 
+     * @param angle the direction of movement in degrees
+     * @param velocity the speed of movement
+     * @return the vertical distance moved per frame
+     */
+    public static double directionY(double angle, double velocity) {
+        return velocity*FastTrig.sin(angle);
+    }
+    
+    /**
+     * Scales an array of points by a multiplier, keeping every point and its full precision.
      * 
      * @param points the array of points to scale
      * @param scale the scaling factor
      * @return a new array of scaled points
      */
     public static Point[] scalePoints(Point[] points, double scale) {
-        Point[] scaled = new Point[points.length-1];
-        for(int i = 0; i<points.length-1; i++) {
-            scaled[i] = new Point((int)(points[i].getX()*scale), (int)(points[i].getY()*scale));
+        Point[] scaled = new Point[points.length];
+        for(int i = 0; i<points.length; i++) {
+            scaled[i] = new Point(points[i].getX()*scale, points[i].getY()*scale);
         }
         return scaled;
     }
@@ -75,24 +113,66 @@ public class Utilities {
      * When an object(spaceship, asteroid) moves off one edge, it re-appears on the opposite edge.
      * 
      * @param p the point to wrap
+     * @param width the width of the playfield
+     * @param height the height of the playfield
      */
-    public static void wrapAround(Point p) {
+    public static void wrapAround(Point p, int width, int height) {
+        p.setX(wrapX(p.getX(), width));
+        p.setY(wrapY(p.getY(), height));
+    }
+    
+    /**
+     * Wraps an x-coordinate around the left and right screen edges.
+     * 
+     * @param x the x-coordinate to wrap
+     * @param width the width of the playfield
+     * @return the wrapped x-coordinate
+     */
+    public static double wrapX(double x, int width) {
         
-        if(p.getX() < -10) {
-            p.setX(Asteroids.width + 10);
+        if(x < -10) {
+            x = width + 10;
         }
         
-        if(p.getX() > Asteroids.width + 10) {
-            p.setX(-10);
+        if(x > width + 10) {
+            x = -10;
         }
+        return x;
+    }
+    
+    /**
+     * Wraps a y-coordinate around the top and bottom screen edges.
+     * 
+     * @param y the y-coordinate to wrap
+     * @param height the height of the playfield
+     * @return the wrapped y-coordinate
+     */
+    public static double wrapY(double y, int height) {
         
-        if(p.getY() < -10) {
-            p.setY(Asteroids.height + 10);
+        if(y < -10) {
+            y = height + 10;
         }
         
-        if(p.getY() > Asteroids.height + 10) {
-            p.setY(-10);
+        if(y > height + 10) {
+            y = -10;
+        }
+        return y;
+    }
+    
+    /**
+     * Blends between an object's previous and current coordinate for drawing in between ticks.
+     * Moves longer than MAX_INTERPOLATION (wrapping around the screen) aren't blended.
+     * 
+     * @param from the coordinate at the start of the tick
+     * @param to the coordinate now
+     * @param alpha how far between the two, from 0 to 1
+     * @return the blended coordinate
+     */
+    public static double interpolate(double from, double to, double alpha) {
+        if (Math.abs(to - from) > MAX_INTERPOLATION) {
+            return to;
         }
+        return from + (to - from) * alpha;
     }
     
     /**
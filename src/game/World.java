@@ -0,0 +1,372 @@
+package game;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.util.Random;
+
+/**
+ * This class holds the whole state of one game of Asteroids: the ship, the asteroid field,
+ * explosions, score and lives. It has no window of its own, so it can be ticked by the
+ * on-screen game or by a headless simulation.
+ */
+public class World implements Updatable, Drawable {
+    private int frame;
+    private int width;
+    private int height;
+    private static final int PARTICLE_CAPACITY = 1024;
+    private static final int PARTICLE_LIFE = 30;
+    private ParticleSystem particles;
+    private AsteroidField asteroidField;
+    private Ship ship;
+    private int score;
+    private boolean gameOver;
+    private int lives;
+    private Profiler profiler;
+    private RenderBatch batch;
+    private boolean batchRendering;
+    private long seed;
+    private Random random;
+    // Kept across restarts, so a new field reuses the geometry of the old one
+    private ShapeCache shapeCache;
+    
+    /**
+     * Constructs a new World with a fresh ship, an empty asteroid field and a random seed.
+     * 
+     * @param width the width of the playfield in pixels
+     * @param height the height of the playfield in pixels
+     */
+    public World(int width, int height) {
+        this(width, height, new Random().nextLong());
+    }
+    
+    /**
+     * Constructs a new World with a fresh ship and an empty asteroid field.
+     * All of the game's randomness comes from one generator seeded with the given seed,
+     * so two worlds with the same seed and the same input play out exactly the same.
+     * 
+     * @param width the width of the playfield in pixels
+     * @param height the height of the playfield in pixels
+     * @param seed the seed for the world's random number generator
+     */
+    public World(int width, int height, long seed) {
+        this.seed = seed;
+        this.random = new Random(seed);
+        this.width = width;
+        this.height = height;
+        frame = 0;
+        score = 0;
+        gameOver = false;
+        lives = 3;
+        
+        shapeCache = AsteroidField.newShapeCache();
+        asteroidField = new AsteroidField(this);
+        ship = new Ship(new Point(width / 2, height / 2), width, height);
+        particles = new ParticleSystem(Integer.getInteger("game.particleCapacity", PARTICLE_CAPACITY), PARTICLE_LIFE);
+        profiler = new Profiler();
+        batch = new RenderBatch();
+        batchRendering = !"false".equals(System.getProperty("game.batchRendering"));
+    }
+    
+    /**
+     * Advances the game by one tick. Updates all objects,
+     * handles collisions, lives, explosions, etc.
+     */
+    @Override
+    public void update() {
+        TickEvent event = new TickEvent();
+        event.begin();
+        frame++;
+        
+        if (!gameOver) {
+            long start = profiler.begin();
+            ship.update();
+            profiler.end(Profiler.SHIP_UPDATE, start);
+            
+            start = profiler.begin();
+            asteroidField.update();
+            profiler.end(Profiler.FIELD_UPDATE, start);
+            
+            start = profiler.begin();
+            boolean shipHit = asteroidField.checkCollisions(ship);
+            profiler.end(Profiler.COLLISIONS, start);
+            
+            if (shipHit) {
+                lives--;
+                newExplosion(ship.position);
+                ship.reset();
+                
+                if (lives <= 0) {
+                    gameOver = true;
+                }
+            }
+        }
+        
+        long start = profiler.begin();
+        particles.update(frame);
+        profiler.end(Profiler.PARTICLES, start);
+        profiler.tick();
+        
+        event.end();
+        if (event.shouldCommit()) {
+            event.frame = frame;
+            event.asteroids = getAsteroidCount();
+            event.bullets = ship.getBullets().size();
+            event.particles = particles.getParticleCount();
+            event.commit();
+        }
+    }
+    
+    /**
+     * Draws the ship, asteroids and explosion particles.
+     * 
+     * @param brush the Graphics object used for drawing
+     */
+    @Override
+    public void draw(Graphics brush) {
+        draw(brush, 1);
+    }
+    
+    /**
+     * Draws the ship, asteroids and explosion particles between their previous and current positions.
+     * Everything is collected into one RenderBatch and drawn with a single color, unless
+     * the game.batchRendering system property is false. Either way, asteroids and particles
+     * outside the clip are culled and counted by the batch.
+     * 
+     * @param brush the Graphics object used for drawing
+     * @param alpha how far between the last tick and the next one, from 0 to 1
+     */
+    @Override
+    public void draw(Graphics brush, double alpha) {
+        if (batchRendering) {
+            batch.begin(brush, width, height);
+            if (!gameOver) {
+                ship.draw(batch, alpha);
+                asteroidField.draw(batch, alpha);
+            }
+            particles.draw(batch);
+            batch.flush(brush, Color.white);
+            return;
+        }
+        
+        batch.begin(brush, width, height);
+        if (!gameOver) {
+            ship.draw(brush, alpha);
+            asteroidField.draw(brush, alpha, batch);
+        }
+        
+        particles.draw(brush, batch);
+    }
+    
+    /**
+     * Creates a new explosion at the specified position when asteroid gets hit and also,
+     * increases the players score by 10 points.
+     * 
+     * @param p the position where the explosion occurs
+     */
+    public void newExplosion(Point p) {
+        newExplosion(p.getX(), p.getY());
+    }
+    
+    /**
+     * Creates a new explosion at (x, y) and increases the players score by 10 points.
+     * 
+     * @param x the x-coordinate where the explosion occurs
+     * @param y the y-coordinate where the explosion occurs
+     */
+    public void newExplosion(double x, double y) {
+        ExplosionEvent event = new ExplosionEvent();
+        event.begin();
+        particles.explode(x, y, frame);
+        score += 10;
+        
+        event.end();
+        if (event.shouldCommit()) {
+            event.frame = frame;
+            event.particles = particles.getParticleCount();
+            event.score = score;
+            event.commit();
+        }
+    }
+    
+    /**
+     * Resets the game.
+     * And its other aspects like lives, score, etc.
+     */
+    public void reset() {
+        gameOver = false;
+        lives = 3;
+        score = 0;
+        ship.reset();
+        asteroidField = new AsteroidField(this);
+        particles.clear();
+    }
+    
+    /**
+     * Returns the player's ship, e.g. to feed it input.
+     * 
+     * @return the ship
+     */
+    public Ship getShip() {
+        return ship;
+    }
+    
+    /**
+     * Returns the asteroid field.
+     * 
+     * @return the asteroid field
+     */
+    public AsteroidField getAsteroidField() {
+        return asteroidField;
+    }
+    
+    /**
+     * Returns the particle system explosions are drawn with, e.g. to read how full it is.
+     * 
+     * @return the particle system
+     */
+    public ParticleSystem getParticles() {
+        return particles;
+    }
+    
+    /**
+     * Returns the generator all of the game's randomness comes from.
+     * 
+     * @return the random number generator
+     */
+    public Random getRandom() {
+        return random;
+    }
+    
+    /**
+     * Returns this world's cache of asteroid geometry.
+     * 
+     * @return the shape cache
+     */
+    public ShapeCache getShapeCache() {
+        return shapeCache;
+    }
+    
+    /**
+     * Returns the seed the world's random number generator started from.
+     * 
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+    
+    /**
+     * Returns a hash of the whole game state: frame, score, lives, the ship and every asteroid.
+     * Two runs that end with the same checksum played out the same.
+     * 
+     * @return the checksum
+     */
+    public long checksum() {
+        long hash = frame;
+        hash = hash * 31 + score;
+        hash = hash * 31 + lives;
+        hash = hash * 31 + Double.doubleToLongBits(ship.position.x);
+        hash = hash * 31 + Double.doubleToLongBits(ship.position.y);
+        hash = hash * 31 + Double.doubleToLongBits(ship.rotation);
+        return hash * 31 + asteroidField.checksum();
+    }
+    
+    /**
+     * Returns the batch frames are drawn through, e.g. to read how many entities were culled.
+     * 
+     * @return the render batch
+     */
+    public RenderBatch getRenderBatch() {
+        return batch;
+    }
+    
+    /**
+     * Sets whether frames are collected into one RenderBatch or drawn a line at a time.
+     * 
+     * @param batchRendering true to batch the drawing
+     */
+    public void setBatchRendering(boolean batchRendering) {
+        this.batchRendering = batchRendering;
+    }
+    
+    /**
+     * Returns the profiler that times each phase of a tick.
+     * 
+     * @return the profiler
+     */
+    public Profiler getProfiler() {
+        return profiler;
+    }
+    
+    /**
+     * Returns the number of ticks run since the world was created.
+     * 
+     * @return the frame number
+     */
+    public int getFrame() {
+        return frame;
+    }
+    
+    /**
+     * Returns the width of the playfield.
+     * 
+     * @return the width in pixels
+     */
+    public int getWidth() {
+        return width;
+    }
+    
+    /**
+     * Returns the height of the playfield.
+     * 
+     * @return the height in pixels
+     */
+    public int getHeight() {
+        return height;
+    }
+    
+    /**
+     * Returns the current score.
+     * 
+     * @return the score
+     */
+    public int getScore() {
+        return score;
+    }
+    
+    /**
+     * Returns the number of lives left.
+     * 
+     * @return the lives left
+     */
+    public int getLives() {
+        return lives;
+    }
+    
+    /**
+     * Returns whether the player has run out of lives.
+     * 
+     * @return true if the game is over
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+    
+    /**
+     * Returns the number of asteroids currently in the field.
+     * 
+     * @return the asteroid count
+     */
+    public int getAsteroidCount() {
+        return asteroidField.getAsteroidCount();
+    }
+    
+    /**
+     * Returns the number of explosion particles still alive.
+     * 
+     * @return the particle count
+     */
+    public int getParticleCount() {
+        return particles.getParticleCount();
+    }
+}
@@ -0,0 +1,78 @@
+package game;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * This class is the SIMD ContainsKernel. Each lane holds one point, and every edge of the
+ * polygon is tested against a whole vector of points at once: the crossing conditions are
+ * compare masks and the parity is kept as a mask that is flipped for every crossing.
+ * Needs the JVM to be started with --add-modules jdk.incubator.vector; ContainsKernel.load()
+ * falls back to the scalar kernel otherwise.
+ */
+public class VectorContainsKernel implements ContainsKernel {
+    
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final ScalarContainsKernel TAIL = new ScalarContainsKernel();
+    
+    /**
+     * Tests the points a vector at a time, and the ones left over one at a time.
+     * 
+     * @param edgeX the x-coordinates of the polygon's points, relative to (x, y)
+     * @param edgeY the y-coordinates of the polygon's points, relative to (x, y)
+     * @param minX the left edge of the polygon's bounding box, relative to (x, y)
+     * @param minY the top edge of the polygon's bounding box, relative to (x, y)
+     * @param maxX the right edge of the polygon's bounding box, relative to (x, y)
+     * @param maxY the bottom edge of the polygon's bounding box, relative to (x, y)
+     * @param x the x-coordinate the polygon is placed at
+     * @param y the y-coordinate the polygon is placed at
+     * @param pointX the x-coordinates of the points to test
+     * @param pointY the y-coordinates of the points to test
+     * @param from the index of the first point to test
+     * @param to one past the index of the last point to test
+     * @param inside receives whether each point is inside, or null to only count them
+     * @return how many of the points are inside
+     */
+    @Override
+    public int contains(double[] edgeX, double[] edgeY, double minX, double minY, double maxX, double maxY,
+            double x, double y, double[] pointX, double[] pointY, int from, int to, boolean[] inside) {
+        int n = edgeX.length;
+        double left = minX + x;
+        double top = minY + y;
+        double right = maxX + x;
+        double bottom = maxY + y;
+        
+        int count = 0;
+        int end = from + SPECIES.loopBound(to - from);
+        for (int p = from; p < end; p += SPECIES.length()) {
+            DoubleVector px = DoubleVector.fromArray(SPECIES, pointX, p);
+            DoubleVector py = DoubleVector.fromArray(SPECIES, pointY, p);
+            VectorMask<Double> odd = SPECIES.maskAll(false);
+            for (int i = 0; i < n; i++) {
+                int j = i + 1 < n ? i + 1 : 0;
+                double xi = edgeX[i] + x;
+                double yi = edgeY[i] + y;
+                double xj = edgeX[j] + x;
+                double yj = edgeY[j] + y;
+                // The slope is worked out first, as in AsteroidShape.contains, so the rounding is the same
+                double slope = (yj - yi) / (xj - xi);
+                VectorMask<Double> spans = px.compare(VectorOperators.GT, xi).and(px.compare(VectorOperators.LE, xj))
+                        .or(px.compare(VectorOperators.GT, xj).and(px.compare(VectorOperators.LE, xi)));
+                VectorMask<Double> below = py.compare(VectorOperators.GT, px.sub(xi).mul(slope).add(yi));
+                // VectorMask has no xor in JDK 17, so flip the lanes where the masks differ
+                odd = odd.eq(spans.and(below)).not();
+            }
+            VectorMask<Double> in = odd.and(px.compare(VectorOperators.GE, left))
+                    .and(px.compare(VectorOperators.LE, right))
+                    .and(py.compare(VectorOperators.GE, top))
+                    .and(py.compare(VectorOperators.LE, bottom));
+            if (inside != null) {
+                in.intoArray(inside, p);
+            }
+            count += in.trueCount();
+        }
+        return count + TAIL.contains(edgeX, edgeY, minX, minY, maxX, maxY, x, y, pointX, pointY, end, to, inside);
+    }
+}
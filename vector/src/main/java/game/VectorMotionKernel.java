@@ -0,0 +1,64 @@
+package game;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * This class is the SIMD MotionKernel. It moves as many objects at once as fit in the
+ * widest vector register the CPU has, and replaces the two wrap-around branches of
+ * Utilities.wrapX/wrapY with compare masks and blends, so there is nothing to mispredict.
+ * Needs the JVM to be started with --add-modules jdk.incubator.vector; MotionKernel.load()
+ * falls back to the scalar kernel otherwise.
+ */
+public class VectorMotionKernel implements MotionKernel {
+    
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final ScalarMotionKernel TAIL = new ScalarMotionKernel();
+    
+    /**
+     * Moves and wraps the objects a vector at a time, and the ones left over one at a time.
+     * 
+     * @param x the x-coordinates, updated in place
+     * @param y the y-coordinates, updated in place
+     * @param previousX receives the x-coordinates before the move
+     * @param previousY receives the y-coordinates before the move
+     * @param dx the distance moved along the x-axis each tick
+     * @param dy the distance moved along the y-axis each tick
+     * @param from the index of the first object to move
+     * @param to one past the index of the last object to move
+     * @param width the width of the playfield
+     * @param height the height of the playfield
+     */
+    @Override
+    public void move(double[] x, double[] y, double[] previousX, double[] previousY, double[] dx, double[] dy,
+            int from, int to, int width, int height) {
+        int end = from + SPECIES.loopBound(to - from);
+        for (int a = from; a < end; a += SPECIES.length()) {
+            moveAxis(x, previousX, dx, a, width);
+            moveAxis(y, previousY, dy, a, height);
+        }
+        TAIL.move(x, y, previousX, previousY, dx, dy, end, to, width, height);
+    }
+    
+    /**
+     * Moves one vector of coordinates along one axis and wraps them.
+     * An object is never past both edges at once, so both masks can come from the
+     * moved coordinates, just as the scalar wrap tests them one after the other.
+     * 
+     * @param position the coordinates, updated in place
+     * @param previous receives the coordinates before the move
+     * @param step the distance moved each tick
+     * @param a the index of the first coordinate in the vector
+     * @param size the size of the playfield along this axis
+     */
+    private static void moveAxis(double[] position, double[] previous, double[] step, int a, int size) {
+        DoubleVector p = DoubleVector.fromArray(SPECIES, position, a);
+        p.intoArray(previous, a);
+        p = p.add(DoubleVector.fromArray(SPECIES, step, a));
+        VectorMask<Double> low = p.compare(VectorOperators.LT, -10);
+        VectorMask<Double> high = p.compare(VectorOperators.GT, size + 10);
+        p.blend(size + 10, low).blend(-10, high).intoArray(position, a);
+    }
+}